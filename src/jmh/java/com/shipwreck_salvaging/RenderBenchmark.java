@@ -0,0 +1,80 @@
+package com.shipwrecksalvaging;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one overlay frame drawn into a headless image, by number of wrecks
+ * and whether their ranges overlap.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark
+{
+    // Salvageable small shipwreck
+    private static final int SHIPWRECK_ID = 60464;
+    // Far enough apart that the 17x17 ranges never touch
+    private static final int SEPARATE_SPACING = 18;
+    private static final int OVERLAPPING_SPACING = 6;
+
+    @Param({"1", "4", "16"})
+    private int wrecks;
+
+    @Param({"false", "true"})
+    private boolean overlap;
+
+    private PluginFixture fixture;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException
+    {
+        fixture = new PluginFixture();
+
+        int spacing = overlap ? OVERLAPPING_SPACING : SEPARATE_SPACING;
+        int columns = (int) Math.ceil(Math.sqrt(wrecks));
+        int start = 52 - (columns - 1) * spacing / 2;
+        for (int i = 0; i < wrecks; i++)
+        {
+            fixture.spawnShipwreck(SHIPWRECK_ID, start + (i % columns) * spacing, start + (i / columns) * spacing);
+        }
+        fixture.beforeRender();
+        fixture.setCamera(52 * 128, 16 * 128, -3000, 383, 0);
+
+        image = new BufferedImage(PluginFixture.CANVAS_WIDTH, PluginFixture.CANVAS_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public Dimension render()
+    {
+        return fixture.overlay.render(graphics);
+    }
+}
@@ -0,0 +1,78 @@
+package com.shipwrecksalvaging;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of classifying a scene-load burst of object spawns, most of which are
+ * not shipwrecks, followed by the first geometry rebuild and the despawn of
+ * everything on the next load.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackingBenchmark
+{
+    // Share of spawned objects that are shipwrecks, roughly what a wreck field looks like
+    private static final double SHIPWRECK_SHARE = 0.02;
+    private static final int FIRST_SHIPWRECK_ID = 60464;
+    private static final int LAST_SHIPWRECK_ID = 60479;
+
+    @Param({"500", "5000"})
+    private int objects;
+
+    private PluginFixture fixture;
+    private GameObject[] burst;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException
+    {
+        fixture = new PluginFixture();
+
+        Random random = new Random(1);
+        burst = new GameObject[objects];
+        for (int i = 0; i < objects; i++)
+        {
+            int id = random.nextDouble() < SHIPWRECK_SHARE
+                    ? FIRST_SHIPWRECK_ID + random.nextInt(LAST_SHIPWRECK_ID - FIRST_SHIPWRECK_ID + 1)
+                    : random.nextInt(FIRST_SHIPWRECK_ID);
+            burst[i] = fixture.createObject(id, random.nextInt(102), random.nextInt(102));
+        }
+    }
+
+    @Benchmark
+    public SalvageRangeGeometry sceneLoad()
+    {
+        fixture.setGameState(GameState.LOADING);
+        for (GameObject gameObject : burst)
+        {
+            fixture.spawn(gameObject);
+        }
+        fixture.setGameState(GameState.LOGGED_IN);
+        fixture.beforeRender();
+        SalvageRangeGeometry geometry = fixture.plugin.getRangeGeometry();
+
+        for (GameObject gameObject : burst)
+        {
+            fixture.despawn(gameObject);
+        }
+        fixture.beforeRender();
+        return geometry;
+    }
+}
@@ -0,0 +1,119 @@
+package com.shipwrecksalvaging;
+
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.Perspective;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+
+/**
+ * Corners of the tile chosen by the {@link SalvagePositionSolver}. Resolved
+ * with their ground heights once per game tick and projected per frame into
+ * reusable buffers, like {@link NpcMarkers}.
+ */
+final class BestPositionMarker
+{
+    private boolean present;
+    private int sceneX;
+    private int sceneY;
+    private int coverage;
+    private final int[] localX = new int[4];
+    private final int[] localY = new int[4];
+    private final int[] height = new int[4];
+    private final int[] canvasX = new int[4];
+    private final int[] canvasY = new int[4];
+
+    void update(Client client, int tile, int coverage)
+    {
+        if (tile < 0)
+        {
+            present = false;
+            return;
+        }
+
+        WorldView worldView = client.getTopLevelWorldView();
+        int x = tile % Constants.SCENE_SIZE;
+        int y = tile / Constants.SCENE_SIZE;
+        if (present && x == sceneX && y == sceneY && coverage == this.coverage)
+        {
+            return;
+        }
+
+        present = true;
+        sceneX = x;
+        sceneY = y;
+        this.coverage = coverage;
+        // Same corner order as the range tiles
+        setCorner(client, worldView, SalvageRangeGeometry.SW, x, y);
+        setCorner(client, worldView, SalvageRangeGeometry.SE, x + 1, y);
+        setCorner(client, worldView, SalvageRangeGeometry.NE, x + 1, y + 1);
+        setCorner(client, worldView, SalvageRangeGeometry.NW, x, y + 1);
+    }
+
+    private void setCorner(Client client, WorldView worldView, int corner, int cornerX, int cornerY)
+    {
+        localX[corner] = cornerX << Perspective.LOCAL_COORD_BITS;
+        localY[corner] = cornerY << Perspective.LOCAL_COORD_BITS;
+        height[corner] = Perspective.getTileHeight(client,
+                new LocalPoint(localX[corner], localY[corner], worldView.getId()), worldView.getPlane());
+    }
+
+    void clear()
+    {
+        present = false;
+    }
+
+    /**
+     * Projects the corners, returning false if there is no marker or any corner is behind the camera.
+     */
+    boolean project(Client client)
+    {
+        if (!present)
+        {
+            return false;
+        }
+
+        Perspective.modelToCanvas(client, 4, 0, 0, 0, 0, localX, localY, height, canvasX, canvasY);
+        for (int corner = 0; corner < 4; corner++)
+        {
+            if (canvasX[corner] == Integer.MIN_VALUE)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isPresent()
+    {
+        return present;
+    }
+
+    int getSceneX()
+    {
+        return sceneX;
+    }
+
+    int getSceneY()
+    {
+        return sceneY;
+    }
+
+    /**
+     * Number of salvageable wreck ranges covering the marked tile.
+     */
+    int getCoverage()
+    {
+        return coverage;
+    }
+
+    int getCanvasX(int corner)
+    {
+        return canvasX[corner];
+    }
+
+    int getCanvasY(int corner)
+    {
+        return canvasY[corner];
+    }
+}
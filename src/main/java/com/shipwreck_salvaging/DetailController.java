@@ -0,0 +1,82 @@
+package com.shipwrecksalvaging;
+
+/**
+ * Picks the {@link DetailLevel} of the range overlay from its own measured
+ * render time and the on-screen size of a tile.
+ * <p>
+ * The render time is smoothed over recent frames. The level steps down when
+ * the average goes over budget and back up once it falls well under it, with
+ * a cooldown so it does not flicker between levels. Independently of the
+ * budget, tiles that are only a few pixels across are never drawn in more
+ * detail than can be seen.
+ */
+final class DetailController
+{
+    // Weight of the newest frame in the smoothed render time
+    private static final double SMOOTHING = 0.1;
+    // Frames to wait after a budget-driven change before changing again
+    private static final int COOLDOWN_FRAMES = 30;
+
+    // Tile sizes in pixels below which finer levels are not worth drawing
+    private static final double MERGED_TILE_PIXELS = 8;
+    private static final double OUTLINE_TILE_PIXELS = 4;
+    private static final double MARKER_TILE_PIXELS = 2;
+
+    private double averageNanos;
+    private DetailLevel budgetLevel = DetailLevel.FULL;
+    private int cooldown;
+
+    void record(long renderNanos)
+    {
+        averageNanos += (renderNanos - averageNanos) * SMOOTHING;
+    }
+
+    DetailLevel choose(long budgetNanos, double tilePixels)
+    {
+        if (cooldown > 0)
+        {
+            cooldown--;
+        }
+        else if (averageNanos > budgetNanos && budgetLevel != DetailLevel.MARKERS)
+        {
+            budgetLevel = budgetLevel.lower();
+            cooldown = COOLDOWN_FRAMES;
+        }
+        else if (averageNanos < budgetNanos / 2.0 && budgetLevel != DetailLevel.FULL)
+        {
+            budgetLevel = budgetLevel.higher();
+            cooldown = COOLDOWN_FRAMES;
+        }
+
+        return DetailLevel.coarsest(budgetLevel, sizeLevel(tilePixels));
+    }
+
+    private static DetailLevel sizeLevel(double tilePixels)
+    {
+        if (tilePixels <= 0)
+        {
+            // Nothing measured, e.g. every block was culled
+            return DetailLevel.FULL;
+        }
+        if (tilePixels < MARKER_TILE_PIXELS)
+        {
+            return DetailLevel.MARKERS;
+        }
+        if (tilePixels < OUTLINE_TILE_PIXELS)
+        {
+            return DetailLevel.OUTLINE;
+        }
+        if (tilePixels < MERGED_TILE_PIXELS)
+        {
+            return DetailLevel.MERGED;
+        }
+        return DetailLevel.FULL;
+    }
+
+    void reset()
+    {
+        averageNanos = 0;
+        budgetLevel = DetailLevel.FULL;
+        cooldown = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.shipwrecksalvaging;
+
+/**
+ * How much of the salvage range the overlay draws, from most to least detailed.
+ */
+enum DetailLevel
+{
+    // Per-tile fills with range and overlap borders
+    FULL,
+    // One fill per connected region and overlap region, with merged outlines
+    MERGED,
+    // Merged outlines only
+    OUTLINE,
+    // A single marker per salvageable wreck
+    MARKERS;
+
+    private static final DetailLevel[] LEVELS = values();
+
+    DetailLevel lower()
+    {
+        return this == MARKERS ? MARKERS : LEVELS[ordinal() + 1];
+    }
+
+    DetailLevel higher()
+    {
+        return this == FULL ? FULL : LEVELS[ordinal() - 1];
+    }
+
+    static DetailLevel coarsest(DetailLevel a, DetailLevel b)
+    {
+        return a.ordinal() >= b.ordinal() ? a : b;
+    }
+}
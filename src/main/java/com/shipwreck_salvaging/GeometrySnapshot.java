@@ -0,0 +1,130 @@
+package com.shipwrecksalvaging;
+
+import net.runelite.api.Constants;
+
+/**
+ * Immutable copy of everything {@link SalvageRangeGeometry} is built from,
+ * taken on the client thread so the build itself can run on any thread.
+ * Terrain is copied for the one plane being built, plus the plane above it
+ * for tiles under a bridge.
+ */
+final class GeometrySnapshot
+{
+    private final int sequence;
+    private final int plane;
+    private final RenderConfig renderConfig;
+    // Packed scene origins of the salvageable ranges on this plane
+    private final int[] rangeOrigins;
+    // Overlapping range count per tile of this plane, indexed by sceneY * SCENE_SIZE + sceneX
+    private final short[] rangeCounts;
+    // Local x and y of the centre of each depleted wreck to highlight
+    private final int[] highlightCentres;
+    private final int[][] tileHeights;
+    private final int[][] bridgeHeights;
+    private final byte[][] bridgeSettings;
+
+    GeometrySnapshot(int sequence, int plane, RenderConfig renderConfig, int[] rangeOrigins, short[] rangeCounts,
+                     int[] highlightCentres, int[][][] tileHeights, byte[][][] tileSettings)
+    {
+        this.sequence = sequence;
+        this.plane = plane;
+        this.renderConfig = renderConfig;
+        this.rangeOrigins = rangeOrigins;
+        this.rangeCounts = rangeCounts;
+        this.highlightCentres = highlightCentres;
+        this.tileHeights = copy(tileHeights[plane]);
+        if (plane < Constants.MAX_Z - 1)
+        {
+            this.bridgeHeights = copy(tileHeights[plane + 1]);
+            this.bridgeSettings = copy(tileSettings[1]);
+        }
+        else
+        {
+            this.bridgeHeights = null;
+            this.bridgeSettings = null;
+        }
+    }
+
+    private static int[][] copy(int[][] array)
+    {
+        int[][] copy = new int[array.length][];
+        for (int i = 0; i < array.length; i++)
+        {
+            copy[i] = array[i].clone();
+        }
+        return copy;
+    }
+
+    private static byte[][] copy(byte[][] array)
+    {
+        byte[][] copy = new byte[array.length][];
+        for (int i = 0; i < array.length; i++)
+        {
+            copy[i] = array[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Increases with every snapshot taken, so a newer build always wins over an older one.
+     */
+    int getSequence()
+    {
+        return sequence;
+    }
+
+    int getPlane()
+    {
+        return plane;
+    }
+
+    RenderConfig getRenderConfig()
+    {
+        return renderConfig;
+    }
+
+    int getRangeCount()
+    {
+        return rangeOrigins.length;
+    }
+
+    int getRangeOrigin(int range)
+    {
+        return rangeOrigins[range];
+    }
+
+    int getOverlapCount(int sceneX, int sceneY)
+    {
+        return rangeCounts[sceneY * Constants.SCENE_SIZE + sceneX];
+    }
+
+    int getHighlightCount()
+    {
+        return highlightCentres.length / 2;
+    }
+
+    int getHighlightX(int highlight)
+    {
+        return highlightCentres[highlight * 2];
+    }
+
+    int getHighlightY(int highlight)
+    {
+        return highlightCentres[highlight * 2 + 1];
+    }
+
+    /**
+     * Ground height at a scene corner, taken from the plane above when the tile is under a bridge, as Perspective does.
+     */
+    int getCornerHeight(int cornerX, int cornerY)
+    {
+        int settingsX = Math.min(cornerX, Constants.SCENE_SIZE - 1);
+        int settingsY = Math.min(cornerY, Constants.SCENE_SIZE - 1);
+        if (bridgeSettings != null
+                && (bridgeSettings[settingsX][settingsY] & Constants.TILE_FLAG_BRIDGE) == Constants.TILE_FLAG_BRIDGE)
+        {
+            return bridgeHeights[cornerX][cornerY];
+        }
+        return tileHeights[cornerX][cornerY];
+    }
+}
@@ -0,0 +1,119 @@
+package com.shipwrecksalvaging;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds {@link SalvageRangeGeometry} from snapshots on a dedicated thread
+ * and publishes each result with an atomic swap, so the render path only
+ * ever reads a complete model and never waits for a build.
+ * <p>
+ * Snapshots submitted while a build is running replace each other, so only
+ * the newest is built next. A result is only published if it is newer than
+ * the published one. Published models are never reused, as a frame may
+ * still be drawing the previous one when the next is swapped in.
+ * <p>
+ * Until {@link #start()} is called builds run on the submitting thread.
+ */
+@Slf4j
+final class GeometryWorker
+{
+    private final AtomicReference<SalvageRangeGeometry> published = new AtomicReference<>(SalvageRangeGeometry.EMPTY);
+    private final AtomicReference<GeometrySnapshot> pending = new AtomicReference<>();
+
+    // Only touched by one build at a time
+    private final byte[] tileFlags = new byte[SalvageRangeGeometry.TILE_FLAGS_SIZE];
+    private final int[] cornerLookup = new int[SalvageRangeGeometry.CORNER_LOOKUP_SIZE];
+
+    private ExecutorService executor;
+
+    void start()
+    {
+        if (executor == null)
+        {
+            executor = Executors.newSingleThreadExecutor(runnable ->
+            {
+                Thread thread = new Thread(runnable, "shipwreck-salvaging-geometry");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Stops the worker, dropping any build not yet published, and goes back to
+     * an empty model.
+     */
+    void stop()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            try
+            {
+                // A build still running would share the scratch buffers with the next one
+                if (!executor.awaitTermination(1, TimeUnit.SECONDS))
+                {
+                    log.warn("Salvage range geometry build did not stop in time");
+                }
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        pending.set(null);
+        published.set(SalvageRangeGeometry.EMPTY);
+    }
+
+    void submit(GeometrySnapshot snapshot)
+    {
+        if (executor == null)
+        {
+            publish(SalvageRangeGeometry.build(snapshot, tileFlags, cornerLookup));
+        }
+        else if (pending.getAndSet(snapshot) == null)
+        {
+            executor.execute(this::buildPending);
+        }
+    }
+
+    private void buildPending()
+    {
+        GeometrySnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null)
+        {
+            return;
+        }
+
+        try
+        {
+            publish(SalvageRangeGeometry.build(snapshot, tileFlags, cornerLookup));
+        }
+        catch (RuntimeException ex)
+        {
+            log.warn("Failed to build the salvage range geometry", ex);
+            Arrays.fill(tileFlags, (byte) 0);
+            Arrays.fill(cornerLookup, 0);
+        }
+    }
+
+    private void publish(SalvageRangeGeometry geometry)
+    {
+        published.accumulateAndGet(geometry,
+                (current, built) -> built.getBuildCount() > current.getBuildCount() ? built : current);
+    }
+
+    /**
+     * Latest published model, possibly a build or two behind the newest snapshot.
+     */
+    SalvageRangeGeometry getGeometry()
+    {
+        return published.get();
+    }
+}
@@ -0,0 +1,178 @@
+package com.shipwrecksalvaging;
+
+import java.util.Collection;
+import net.runelite.api.Client;
+import net.runelite.api.NPC;
+import net.runelite.api.Perspective;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+
+/**
+ * How much of the boat's hull lies within each salvageable range, resolved
+ * once per game tick.
+ * <p>
+ * The hull is the bounding box of the tiles under the pivot NPCs and a range
+ * is a box too, so each is classified by intersecting the two boxes.
+ */
+final class HullCoverage
+{
+    static final int NOT_IN_RANGE = 0;
+    static final int PARTLY_IN_RANGE = 1;
+    static final int FULLY_IN_RANGE = 2;
+
+    private boolean hullPresent;
+    private int hullX;
+    private int hullY;
+    private int hullMaxX;
+    private int hullMaxY;
+
+    private int count;
+    private int[] status = new int[0];
+    private int[] localX = new int[0];
+    private int[] localY = new int[0];
+    private int[] height = new int[0];
+    private int[] canvasX = new int[0];
+    private int[] canvasY = new int[0];
+
+    /**
+     * Classifies the hull box from {@code (hullX, hullY)} to
+     * {@code (hullMaxX, hullMaxY)} against the range of the wreck at a packed
+     * scene origin.
+     */
+    static int classify(int hullX, int hullY, int hullMaxX, int hullMaxY, int rangeOrigin)
+    {
+        int minX = SalvageRangeGrid.unpackX(rangeOrigin) + SalvageRangeGrid.RANGE_MIN_OFFSET;
+        int maxX = SalvageRangeGrid.unpackX(rangeOrigin) + SalvageRangeGrid.RANGE_MAX_OFFSET;
+        int minY = SalvageRangeGrid.unpackY(rangeOrigin) + SalvageRangeGrid.RANGE_MIN_OFFSET;
+        int maxY = SalvageRangeGrid.unpackY(rangeOrigin) + SalvageRangeGrid.RANGE_MAX_OFFSET;
+        if (hullMaxX < minX || hullMaxY < minY || hullX > maxX || hullY > maxY)
+        {
+            return NOT_IN_RANGE;
+        }
+        if (hullX >= minX && hullY >= minY && hullMaxX <= maxX && hullMaxY <= maxY)
+        {
+            return FULLY_IN_RANGE;
+        }
+        return PARTLY_IN_RANGE;
+    }
+
+    /**
+     * Classifies the hull against the first {@code rangeCount} packed range origins.
+     */
+    void update(Client client, Collection<NPC> pivots, int[] rangeOrigins, int rangeCount)
+    {
+        count = 0;
+        updateHull(pivots);
+        if (!hullPresent)
+        {
+            return;
+        }
+
+        if (status.length < rangeCount)
+        {
+            int capacity = Math.max(rangeCount, status.length * 2);
+            status = new int[capacity];
+            localX = new int[capacity];
+            localY = new int[capacity];
+            height = new int[capacity];
+            canvasX = new int[capacity];
+            canvasY = new int[capacity];
+        }
+
+        WorldView worldView = client.getTopLevelWorldView();
+        int plane = worldView.getPlane();
+        for (int i = 0; i < rangeCount; i++)
+        {
+            int origin = rangeOrigins[i];
+            if (SalvageRangeGrid.unpackPlane(origin) != plane)
+            {
+                continue;
+            }
+
+            // Centre of the wreck, the corner between its tiles
+            int x = (SalvageRangeGrid.unpackX(origin) + SalvageRangeGrid.SHIPWRECK_SIZE / 2) << Perspective.LOCAL_COORD_BITS;
+            int y = (SalvageRangeGrid.unpackY(origin) + SalvageRangeGrid.SHIPWRECK_SIZE / 2) << Perspective.LOCAL_COORD_BITS;
+            status[count] = classify(hullX, hullY, hullMaxX, hullMaxY, origin);
+            localX[count] = x;
+            localY[count] = y;
+            height[count] = Perspective.getTileHeight(client, new LocalPoint(x, y, worldView.getId()), plane);
+            count++;
+        }
+    }
+
+    private void updateHull(Collection<NPC> pivots)
+    {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (NPC npc : pivots)
+        {
+            LocalPoint localPoint = npc.getLocalLocation();
+            if (localPoint == null)
+            {
+                continue;
+            }
+
+            // The large pivot covers 2x2 tiles from its south-west tile
+            int size = PivotNpcTracker.isLargeNpc(npc) ? 2 : 1;
+            minX = Math.min(minX, localPoint.getSceneX());
+            minY = Math.min(minY, localPoint.getSceneY());
+            maxX = Math.max(maxX, localPoint.getSceneX() + size - 1);
+            maxY = Math.max(maxY, localPoint.getSceneY() + size - 1);
+        }
+
+        hullPresent = minX != Integer.MAX_VALUE;
+        if (hullPresent)
+        {
+            hullX = minX;
+            hullY = minY;
+            hullMaxX = maxX;
+            hullMaxY = maxY;
+        }
+    }
+
+    void clear()
+    {
+        hullPresent = false;
+        count = 0;
+    }
+
+    void project(Client client)
+    {
+        if (count > 0)
+        {
+            Perspective.modelToCanvas(client, count, 0, 0, 0, 0, localX, localY, height, canvasX, canvasY);
+        }
+    }
+
+    boolean isHullPresent()
+    {
+        return hullPresent;
+    }
+
+    int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * One of {@link #NOT_IN_RANGE}, {@link #PARTLY_IN_RANGE} or {@link #FULLY_IN_RANGE}.
+     */
+    int getStatus(int wreck)
+    {
+        return status[wreck];
+    }
+
+    boolean isVisible(int wreck)
+    {
+        return canvasX[wreck] != Integer.MIN_VALUE;
+    }
+
+    int getCanvasX(int wreck)
+    {
+        return canvasX[wreck];
+    }
+
+    int getCanvasY(int wreck)
+    {
+        return canvasY[wreck];
+    }
+}
@@ -0,0 +1,166 @@
+package com.shipwrecksalvaging;
+
+import java.util.Collection;
+import net.runelite.api.Client;
+import net.runelite.api.NPC;
+import net.runelite.api.Perspective;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Marker points of the tracked NPCs. Tile corners are resolved once per game
+ * tick, when NPC tiles can change, and projected per frame into reusable
+ * buffers. Markers sit between the projected corners of the NPC's tile, as
+ * they did when each tile was projected with {@code getCanvasTilePoly}.
+ */
+final class NpcMarkers
+{
+    private static final int CORNERS = 4;
+    private static final int SOUTH_EDGE = 0;
+    private static final int EAST_EDGE = 1;
+    private static final int CENTRE = 2;
+
+    private int count;
+    private int[] localX = new int[0];
+    private int[] localY = new int[0];
+    private int[] height = new int[0];
+    private int[] canvasX = new int[0];
+    private int[] canvasY = new int[0];
+    private int[] kind = new int[0];
+    private int[] markerX = new int[0];
+    private int[] markerY = new int[0];
+
+    void update(Client client, Collection<NPC> npcs)
+    {
+        count = 0;
+        if (kind.length < npcs.size())
+        {
+            int capacity = Math.max(npcs.size(), kind.length * 2);
+            localX = new int[capacity * CORNERS];
+            localY = new int[capacity * CORNERS];
+            height = new int[capacity * CORNERS];
+            canvasX = new int[capacity * CORNERS];
+            canvasY = new int[capacity * CORNERS];
+            kind = new int[capacity];
+            markerX = new int[capacity];
+            markerY = new int[capacity];
+        }
+
+        WorldView worldView = client.getTopLevelWorldView();
+        for (NPC npc : npcs)
+        {
+            WorldPoint worldPoint = npc.getWorldLocation();
+            if (worldPoint == null || worldPoint.getPlane() != worldView.getPlane())
+            {
+                continue;
+            }
+
+            LocalPoint localPoint = LocalPoint.fromWorld(client, worldPoint);
+            if (localPoint == null)
+            {
+                continue;
+            }
+
+            // South-west, south-east, north-east and north-west, in the order of getCanvasTilePoly
+            int westX = localPoint.getSceneX() << Perspective.LOCAL_COORD_BITS;
+            int southY = localPoint.getSceneY() << Perspective.LOCAL_COORD_BITS;
+            int eastX = westX + Perspective.LOCAL_TILE_SIZE;
+            int northY = southY + Perspective.LOCAL_TILE_SIZE;
+            int corner = count * CORNERS;
+            setCorner(client, worldView, corner, westX, southY);
+            setCorner(client, worldView, corner + 1, eastX, southY);
+            setCorner(client, worldView, corner + 2, eastX, northY);
+            setCorner(client, worldView, corner + 3, westX, northY);
+
+            if (PivotNpcTracker.isLargeNpc(npc))
+            {
+                // Centre of the east edge of the south-west tile of the 2x2 NPC
+                kind[count] = EAST_EDGE;
+            }
+            else if (PivotNpcTracker.isCenterNpc(npc))
+            {
+                kind[count] = CENTRE;
+            }
+            else
+            {
+                // Centre of the south edge
+                kind[count] = SOUTH_EDGE;
+            }
+            count++;
+        }
+    }
+
+    private void setCorner(Client client, WorldView worldView, int corner, int x, int y)
+    {
+        localX[corner] = x;
+        localY[corner] = y;
+        height[corner] = Perspective.getTileHeight(client, new LocalPoint(x, y, worldView.getId()), worldView.getPlane());
+    }
+
+    void clear()
+    {
+        count = 0;
+    }
+
+    void project(Client client)
+    {
+        if (count == 0)
+        {
+            return;
+        }
+
+        Perspective.modelToCanvas(client, count * CORNERS, 0, 0, 0, 0, localX, localY, height, canvasX, canvasY);
+        for (int marker = 0; marker < count; marker++)
+        {
+            int corner = marker * CORNERS;
+            if (canvasX[corner] == Integer.MIN_VALUE || canvasX[corner + 1] == Integer.MIN_VALUE
+                    || canvasX[corner + 2] == Integer.MIN_VALUE || canvasX[corner + 3] == Integer.MIN_VALUE)
+            {
+                markerX[marker] = Integer.MIN_VALUE;
+                continue;
+            }
+
+            switch (kind[marker])
+            {
+                case EAST_EDGE:
+                    markerX[marker] = (canvasX[corner + 1] + canvasX[corner + 2]) / 2;
+                    markerY[marker] = (canvasY[corner + 1] + canvasY[corner + 2]) / 2;
+                    break;
+                case CENTRE:
+                    markerX[marker] = (canvasX[corner] + canvasX[corner + 1] + canvasX[corner + 2] + canvasX[corner + 3]) / 4;
+                    markerY[marker] = (canvasY[corner] + canvasY[corner + 1] + canvasY[corner + 2] + canvasY[corner + 3]) / 4;
+                    break;
+                default:
+                    markerX[marker] = (canvasX[corner] + canvasX[corner + 1]) / 2;
+                    markerY[marker] = (canvasY[corner] + canvasY[corner + 1]) / 2;
+                    break;
+            }
+        }
+    }
+
+    int getCount()
+    {
+        return count;
+    }
+
+    int getProjectedCorners()
+    {
+        return count * CORNERS;
+    }
+
+    boolean isVisible(int marker)
+    {
+        return markerX[marker] != Integer.MIN_VALUE;
+    }
+
+    int getCanvasX(int marker)
+    {
+        return markerX[marker];
+    }
+
+    int getCanvasY(int marker)
+    {
+        return markerY[marker];
+    }
+}
@@ -0,0 +1,129 @@
+package com.shipwrecksalvaging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import net.runelite.api.NPC;
+import net.runelite.api.WorldView;
+
+/**
+ * The salvaging pivot NPCs currently in the scene, kept up to date from
+ * spawn and despawn events and checked against the client once per tick.
+ * <p>
+ * There are only ever a handful, so they are kept in a plain list. An NPC
+ * replaces any tracked NPC with the same index, and the per-tick check drops
+ * any NPC the client no longer holds at its index, so references left over
+ * from a scene load cannot build up.
+ */
+final class PivotNpcTracker
+{
+    // NPC that is marked at the centre of its tile
+    static final int CENTER_NPC_ID = 15186;
+    // 2x2 NPC that is marked on the east edge of its south-west tile
+    static final int LARGE_NPC_ID = 15187;
+    private static final int FIRST_NPC_ID = 15186;
+    private static final int LAST_NPC_ID = 15190;
+
+    private final List<NPC> npcs = new ArrayList<>();
+    private final Collection<NPC> view = Collections.unmodifiableList(npcs);
+
+    static boolean isPivotNpc(int npcId)
+    {
+        return npcId >= FIRST_NPC_ID && npcId <= LAST_NPC_ID;
+    }
+
+    static boolean isLargeNpc(NPC npc)
+    {
+        return npc.getId() == LARGE_NPC_ID;
+    }
+
+    static boolean isCenterNpc(NPC npc)
+    {
+        return npc.getId() == CENTER_NPC_ID;
+    }
+
+    /**
+     * Starts tracking an NPC if it is a pivot NPC.
+     *
+     * @return true if the NPC was not tracked before
+     */
+    boolean add(NPC npc)
+    {
+        if (!isPivotNpc(npc.getId()))
+        {
+            return false;
+        }
+
+        for (int i = 0; i < npcs.size(); i++)
+        {
+            NPC tracked = npcs.get(i);
+            if (tracked == npc)
+            {
+                return false;
+            }
+            if (tracked.getIndex() == npc.getIndex())
+            {
+                // The client reused the index, so the old NPC is gone
+                npcs.set(i, npc);
+                return true;
+            }
+        }
+        npcs.add(npc);
+        return true;
+    }
+
+    boolean remove(NPC npc)
+    {
+        for (int i = 0; i < npcs.size(); i++)
+        {
+            if (npcs.get(i) == npc)
+            {
+                npcs.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds every pivot NPC in the given list, for NPCs that spawned before the plugin was listening.
+     */
+    void scan(Collection<? extends NPC> sceneNpcs)
+    {
+        for (NPC npc : sceneNpcs)
+        {
+            add(npc);
+        }
+    }
+
+    /**
+     * Drops tracked NPCs that the world view no longer holds at their index.
+     *
+     * @return the number of NPCs dropped
+     */
+    int reconcile(WorldView worldView)
+    {
+        int removed = 0;
+        for (int i = npcs.size() - 1; i >= 0; i--)
+        {
+            NPC npc = npcs.get(i);
+            if (worldView.npcs().byIndex(npc.getIndex()) != npc)
+            {
+                npcs.remove(i);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    Collection<NPC> getNpcs()
+    {
+        return view;
+    }
+
+    void clear()
+    {
+        npcs.clear();
+    }
+}
@@ -0,0 +1,269 @@
+package com.shipwrecksalvaging;
+
+import java.util.Arrays;
+import net.runelite.api.Client;
+import net.runelite.api.Perspective;
+
+/**
+ * Canvas positions of the distinct corners in a {@link SalvageRangeGeometry},
+ * projected in batches per frame into reusable buffers.
+ * <p>
+ * Projection runs in two passes. The first projects only the bounding box of
+ * each tile block, culls blocks that lie behind the camera or outside the
+ * viewport and measures how large a tile is on screen. The second projects
+ * the corners the chosen {@link DetailLevel} needs: tile corners of the blocks
+ * that are left, outline corners, and highlight and marker corners. A corner
+ * that was not projected this frame reports itself as not visible.
+ */
+final class ProjectionLattice
+{
+    // Perspective marks points behind the camera with this value
+    private static final int NOT_VISIBLE = Integer.MIN_VALUE;
+    // Slack around the viewport so borders of tiles just outside it are still drawn
+    private static final int VIEWPORT_MARGIN = 8;
+
+    private int[] canvasX = new int[0];
+    private int[] canvasY = new int[0];
+    // Generation in which each corner was last projected
+    private int[] projected = new int[0];
+    private int frameGeneration;
+    private int generation;
+
+    private boolean[] blockVisible = new boolean[0];
+
+    // Gathered corners of the current pass
+    private int gatherCount;
+    private int[] gatherIndex = new int[0];
+    private int[] gatherX = new int[0];
+    private int[] gatherY = new int[0];
+    private int[] gatherZ = new int[0];
+    private int[] gatherCanvasX = new int[0];
+    private int[] gatherCanvasY = new int[0];
+
+    private int projectedCorners;
+    private double tilePixels;
+
+    /**
+     * First pass: projects the block bounds, culls blocks and measures the
+     * average on-screen tile size.
+     */
+    void projectBlocks(Client client, SalvageRangeGeometry geometry)
+    {
+        int corners = geometry.getCornerCount();
+        if (canvasX.length < corners)
+        {
+            int capacity = geometry.getCornerX().length;
+            canvasX = new int[capacity];
+            canvasY = new int[capacity];
+            projected = new int[capacity];
+            gatherIndex = new int[capacity];
+            gatherX = new int[capacity];
+            gatherY = new int[capacity];
+            gatherZ = new int[capacity];
+            gatherCanvasX = new int[capacity];
+            gatherCanvasY = new int[capacity];
+            frameGeneration = generation = 0;
+        }
+
+        int blocks = geometry.getBlockCount();
+        if (blockVisible.length < blocks)
+        {
+            blockVisible = new boolean[Math.max(blocks, blockVisible.length * 2)];
+        }
+
+        if (generation > Integer.MAX_VALUE - 2)
+        {
+            Arrays.fill(projected, 0);
+            generation = 0;
+        }
+        frameGeneration = generation;
+        projectedCorners = 0;
+
+        // First pass: block bounds
+        beginPass();
+        for (int block = 0; block < blocks; block++)
+        {
+            for (int corner = 0; corner < 4; corner++)
+            {
+                gather(geometry, geometry.getBlockCorner(block, corner));
+            }
+        }
+        endPass(client);
+
+        int minX = client.getViewportXOffset() - VIEWPORT_MARGIN;
+        int minY = client.getViewportYOffset() - VIEWPORT_MARGIN;
+        int maxX = client.getViewportXOffset() + client.getViewportWidth() + VIEWPORT_MARGIN;
+        int maxY = client.getViewportYOffset() + client.getViewportHeight() + VIEWPORT_MARGIN;
+        double measuredPixels = 0;
+        int measuredTiles = 0;
+        for (int block = 0; block < blocks; block++)
+        {
+            blockVisible[block] = isBlockOnScreen(geometry, block, minX, minY, maxX, maxY);
+            if (blockVisible[block] && isVisible(geometry.getBlockCorner(block, SalvageRangeGeometry.SW))
+                    && isVisible(geometry.getBlockCorner(block, SalvageRangeGeometry.SE)))
+            {
+                int sw = geometry.getBlockCorner(block, SalvageRangeGeometry.SW);
+                int se = geometry.getBlockCorner(block, SalvageRangeGeometry.SE);
+                measuredPixels += Math.hypot(canvasX[se] - canvasX[sw], canvasY[se] - canvasY[sw]);
+                measuredTiles += (geometry.getCornerX()[se] - geometry.getCornerX()[sw]) >> Perspective.LOCAL_COORD_BITS;
+            }
+        }
+        tilePixels = measuredTiles > 0 ? measuredPixels / measuredTiles : 0;
+    }
+
+    /**
+     * Second pass: projects the corners needed to draw the geometry at the given level.
+     */
+    void projectCorners(Client client, SalvageRangeGeometry geometry, DetailLevel level, boolean outlines)
+    {
+        beginPass();
+        if (level == DetailLevel.FULL)
+        {
+            for (int block = 0; block < geometry.getBlockCount(); block++)
+            {
+                if (!blockVisible[block])
+                {
+                    continue;
+                }
+
+                for (int tile = geometry.getBlockTileStart(block); tile < geometry.getBlockTileEnd(block); tile++)
+                {
+                    gather(geometry, geometry.getTileCorner(tile, SalvageRangeGeometry.SW));
+                    gather(geometry, geometry.getTileCorner(tile, SalvageRangeGeometry.SE));
+                    gather(geometry, geometry.getTileCorner(tile, SalvageRangeGeometry.NE));
+                    gather(geometry, geometry.getTileCorner(tile, SalvageRangeGeometry.NW));
+                }
+            }
+        }
+        if (outlines || level == DetailLevel.MERGED || level == DetailLevel.OUTLINE)
+        {
+            RangeOutlines rangeOutlines = geometry.getOutlines();
+            for (int vertex = 0; vertex < rangeOutlines.getVertexCount(); vertex++)
+            {
+                gather(geometry, rangeOutlines.getVertex(vertex));
+            }
+        }
+        if (level == DetailLevel.MARKERS)
+        {
+            for (int marker = 0; marker < geometry.getMarkerCount(); marker++)
+            {
+                gather(geometry, geometry.getMarkerCorner(marker));
+            }
+        }
+        for (int highlight = 0; highlight < geometry.getHighlightCount(); highlight++)
+        {
+            for (int corner = 0; corner < 4; corner++)
+            {
+                gather(geometry, geometry.getHighlightCorner(highlight, corner));
+            }
+        }
+        endPass(client);
+    }
+
+    private void beginPass()
+    {
+        generation++;
+        gatherCount = 0;
+    }
+
+    private void gather(SalvageRangeGeometry geometry, int corner)
+    {
+        if (projected[corner] == generation)
+        {
+            return;
+        }
+
+        projected[corner] = generation;
+        gatherIndex[gatherCount] = corner;
+        gatherX[gatherCount] = geometry.getCornerX()[corner];
+        gatherY[gatherCount] = geometry.getCornerY()[corner];
+        gatherZ[gatherCount] = geometry.getCornerZ()[corner];
+        gatherCount++;
+    }
+
+    private void endPass(Client client)
+    {
+        if (gatherCount == 0)
+        {
+            return;
+        }
+
+        Perspective.modelToCanvas(client, gatherCount, 0, 0, 0, 0,
+                gatherX, gatherY, gatherZ, gatherCanvasX, gatherCanvasY);
+
+        for (int i = 0; i < gatherCount; i++)
+        {
+            canvasX[gatherIndex[i]] = gatherCanvasX[i];
+            canvasY[gatherIndex[i]] = gatherCanvasY[i];
+        }
+        projectedCorners += gatherCount;
+    }
+
+    private boolean isBlockOnScreen(SalvageRangeGeometry geometry, int block, int minX, int minY, int maxX, int maxY)
+    {
+        int left = Integer.MAX_VALUE, top = Integer.MAX_VALUE, right = Integer.MIN_VALUE, bottom = Integer.MIN_VALUE;
+        int behind = 0;
+        for (int i = 0; i < 4; i++)
+        {
+            int corner = geometry.getBlockCorner(block, i);
+            if (!isVisible(corner))
+            {
+                behind++;
+                continue;
+            }
+
+            left = Math.min(left, canvasX[corner]);
+            right = Math.max(right, canvasX[corner]);
+            top = Math.min(top, canvasY[corner]);
+            bottom = Math.max(bottom, canvasY[corner]);
+        }
+
+        if (behind == 4)
+        {
+            return false;
+        }
+        if (behind > 0)
+        {
+            // Straddles the camera plane; the projected box says nothing about what is on screen
+            return true;
+        }
+        return right >= minX && left <= maxX && bottom >= minY && top <= maxY;
+    }
+
+    boolean isBlockVisible(int block)
+    {
+        return blockVisible[block];
+    }
+
+    int getX(int corner)
+    {
+        return canvasX[corner];
+    }
+
+    int getY(int corner)
+    {
+        return canvasY[corner];
+    }
+
+    boolean isVisible(int corner)
+    {
+        return projected[corner] > frameGeneration && canvasX[corner] != NOT_VISIBLE;
+    }
+
+    /**
+     * Average length in pixels of a tile side across the visible blocks, or 0
+     * if no block could be measured this frame.
+     */
+    double getTilePixels()
+    {
+        return tilePixels;
+    }
+
+    /**
+     * Number of corners projected in the last frame, across both passes.
+     */
+    int getProjectedCorners()
+    {
+        return projectedCorners;
+    }
+}
@@ -0,0 +1,311 @@
+package com.shipwrecksalvaging;
+
+import java.util.Arrays;
+import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.Constants;
+
+/**
+ * Number of boat moves from each scene tile of one plane to the nearest tile
+ * in salvage range, over the open water of the collision data.
+ * <p>
+ * The client marks water with {@link CollisionDataFlag#BLOCK_MOVEMENT_FLOOR}
+ * as it cannot be walked on, so open water is a tile with that flag and no
+ * object, floor decoration or wall on it. Every covered open tile is a source
+ * at distance 0. When sources appear the
+ * lower distances spread from them; when sources disappear only the tiles
+ * whose route may have run through them are reset, and are refilled from the
+ * tiles around them that still have a route. The spreading runs from a work
+ * queue that can be drained across several ticks within a time budget, so a
+ * route read mid-way may be longer than the shortest but never leads nowhere.
+ */
+final class RangeDistanceField
+{
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int SIZE = Constants.SCENE_SIZE;
+    private static final int TILES = SIZE * SIZE;
+    // Orthogonal moves first, so routes prefer them when a diagonal is no shorter
+    private static final int[] MOVE_X = {0, 1, 0, -1, 1, 1, -1, -1};
+    private static final int[] MOVE_Y = {1, 0, -1, 0, 1, -1, -1, 1};
+    // How many tiles to settle between checks of the clock
+    private static final int CLOCK_INTERVAL = 256;
+    private static final int OBSTACLE = CollisionDataFlag.BLOCK_MOVEMENT_OBJECT
+            | CollisionDataFlag.BLOCK_MOVEMENT_FLOOR_DECORATION
+            | CollisionDataFlag.BLOCK_MOVEMENT_NORTH_WEST | CollisionDataFlag.BLOCK_MOVEMENT_NORTH
+            | CollisionDataFlag.BLOCK_MOVEMENT_NORTH_EAST | CollisionDataFlag.BLOCK_MOVEMENT_EAST
+            | CollisionDataFlag.BLOCK_MOVEMENT_SOUTH_EAST | CollisionDataFlag.BLOCK_MOVEMENT_SOUTH
+            | CollisionDataFlag.BLOCK_MOVEMENT_SOUTH_WEST | CollisionDataFlag.BLOCK_MOVEMENT_WEST;
+
+    private final int[] distance = new int[TILES];
+    private final boolean[] source = new boolean[TILES];
+    private final boolean[] blocked = new boolean[TILES];
+
+    // Tiles whose neighbours may be lowered, as a ring buffer holding each tile at most once
+    private final int[] queue = new int[TILES];
+    private final boolean[] queued = new boolean[TILES];
+    private int queueHead;
+    private int queueSize;
+
+    // Tiles reset while raising, with the distance they had before
+    private final int[] raiseTile = new int[TILES];
+    private final int[] raiseDistance = new int[TILES];
+
+    private int plane = -1;
+
+    RangeDistanceField()
+    {
+        Arrays.fill(distance, UNREACHABLE);
+    }
+
+    /**
+     * Whether a boat can sail over a tile with the collision flags.
+     */
+    static boolean isOpenWater(int collisionFlags)
+    {
+        return (collisionFlags & CollisionDataFlag.BLOCK_MOVEMENT_FLOOR) != 0 && (collisionFlags & OBSTACLE) == 0;
+    }
+
+    /**
+     * Drops every source and distance and takes the open water from the
+     * collision flags of the plane. Without flags every tile is open.
+     */
+    void reset(int[][] collisionFlags, int plane)
+    {
+        this.plane = plane;
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(source, false);
+        Arrays.fill(queued, false);
+        queueHead = queueSize = 0;
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                blocked[y * SIZE + x] = collisionFlags != null && (x >= collisionFlags.length
+                        || y >= collisionFlags[x].length || !isOpenWater(collisionFlags[x][y]));
+            }
+        }
+    }
+
+    /**
+     * Makes the covered open tiles of the grid the sources, queueing the work
+     * to spread the change from the tiles that became or stopped being one.
+     */
+    void updateSources(SalvageRangeGrid rangeGrid)
+    {
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                int tile = y * SIZE + x;
+                boolean covered = !blocked[tile] && rangeGrid.count(x, y, plane) > 0;
+                if (covered == source[tile])
+                {
+                    continue;
+                }
+
+                source[tile] = covered;
+                if (covered)
+                {
+                    distance[tile] = 0;
+                    enqueue(tile);
+                }
+                else
+                {
+                    raise(tile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resets the tile and every tile whose route may have run through it, and
+     * queues the tiles bordering them that still have a route.
+     * <p>
+     * A tile further from range than a reset neighbour may depend on it by
+     * more than one move, as distances lowered by an unfinished propagation
+     * have not reached the tiles set from the old ones yet. So every further
+     * tile without a neighbour one move closer is reset, not only those one
+     * move further.
+     */
+    private void raise(int start)
+    {
+        int count = 0;
+        raiseTile[count] = start;
+        raiseDistance[count++] = distance[start];
+        distance[start] = UNREACHABLE;
+
+        for (int i = 0; i < count; i++)
+        {
+            int tile = raiseTile[i];
+            int previous = raiseDistance[i];
+            int x = tile % SIZE;
+            int y = tile / SIZE;
+            for (int move = 0; move < MOVE_X.length; move++)
+            {
+                int neighbour = step(x, y, move);
+                if (neighbour < 0 || distance[neighbour] == UNREACHABLE)
+                {
+                    continue;
+                }
+
+                if (!source[neighbour] && previous != UNREACHABLE && distance[neighbour] > previous
+                        && !hasRoute(neighbour))
+                {
+                    raiseTile[count] = neighbour;
+                    raiseDistance[count++] = distance[neighbour];
+                    distance[neighbour] = UNREACHABLE;
+                }
+                else
+                {
+                    // Still has a route, so it can lower the reset tiles again
+                    enqueue(neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether a neighbour of the tile is one move closer to range.
+     */
+    private boolean hasRoute(int tile)
+    {
+        int x = tile % SIZE;
+        int y = tile / SIZE;
+        for (int move = 0; move < MOVE_X.length; move++)
+        {
+            int neighbour = step(x, y, move);
+            if (neighbour >= 0 && distance[neighbour] == distance[tile] - 1)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spreads lowered distances until the queue is empty or the budget is spent.
+     *
+     * @return true if the field is settled
+     */
+    boolean propagate(long budgetNanos)
+    {
+        long deadline = System.nanoTime() + budgetNanos;
+        int settled = 0;
+        while (queueSize > 0)
+        {
+            if (++settled % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0)
+            {
+                return false;
+            }
+
+            int tile = queue[queueHead];
+            queued[tile] = false;
+            queueHead = (queueHead + 1) % TILES;
+            queueSize--;
+
+            int next = distance[tile] == UNREACHABLE ? UNREACHABLE : distance[tile] + 1;
+            int x = tile % SIZE;
+            int y = tile / SIZE;
+            for (int move = 0; move < MOVE_X.length; move++)
+            {
+                int neighbour = step(x, y, move);
+                if (neighbour >= 0 && next < distance[neighbour])
+                {
+                    distance[neighbour] = next;
+                    enqueue(neighbour);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void enqueue(int tile)
+    {
+        if (!queued[tile])
+        {
+            queued[tile] = true;
+            queue[(queueHead + queueSize) % TILES] = tile;
+            queueSize++;
+        }
+    }
+
+    /**
+     * Open tile reached by a move from the tile, or -1. A diagonal move needs
+     * both tiles it cuts past to be open.
+     */
+    private int step(int x, int y, int move)
+    {
+        int toX = x + MOVE_X[move];
+        int toY = y + MOVE_Y[move];
+        if (toX < 0 || toY < 0 || toX >= SIZE || toY >= SIZE || blocked[toY * SIZE + toX])
+        {
+            return -1;
+        }
+        if (toX != x && toY != y && (blocked[y * SIZE + toX] || blocked[toY * SIZE + x]))
+        {
+            return -1;
+        }
+        return toY * SIZE + toX;
+    }
+
+    /**
+     * Follows the distances down from the tile to range, writing the tiles on
+     * the way after the start, packed as {@code y * SCENE_SIZE + x}.
+     *
+     * @return the number of tiles written, 0 if the start is in range or has no route
+     */
+    int route(int sceneX, int sceneY, int[] tiles)
+    {
+        int tile = sceneY * SIZE + sceneX;
+        int length = 0;
+        while (length < tiles.length && distance[tile] != 0 && distance[tile] != UNREACHABLE)
+        {
+            int x = tile % SIZE;
+            int y = tile / SIZE;
+            int next = -1;
+            for (int move = 0; move < MOVE_X.length && next < 0; move++)
+            {
+                int neighbour = step(x, y, move);
+                if (neighbour >= 0 && distance[neighbour] == distance[tile] - 1)
+                {
+                    next = neighbour;
+                }
+            }
+            if (next < 0)
+            {
+                // Mid-update the distances can step down by more than one; take the lowest neighbour
+                for (int move = 0; move < MOVE_X.length; move++)
+                {
+                    int neighbour = step(x, y, move);
+                    if (neighbour >= 0 && distance[neighbour] < distance[tile]
+                            && (next < 0 || distance[neighbour] < distance[next]))
+                    {
+                        next = neighbour;
+                    }
+                }
+            }
+            if (next < 0)
+            {
+                return 0;
+            }
+            tiles[length++] = next;
+            tile = next;
+        }
+        return distance[tile] == 0 ? length : 0;
+    }
+
+    int getDistance(int sceneX, int sceneY)
+    {
+        return distance[sceneY * SIZE + sceneX];
+    }
+
+    int getPlane()
+    {
+        return plane;
+    }
+
+    boolean isSettled()
+    {
+        return queueSize == 0;
+    }
+}
@@ -0,0 +1,122 @@
+package com.shipwrecksalvaging;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import net.runelite.api.Client;
+
+/**
+ * Offscreen copy of the range, overlap and highlight layer, reused while the
+ * camera, viewport, geometry and config are unchanged since it was drawn.
+ */
+final class RangeLayerCache
+{
+    private BufferedImage image;
+    private boolean valid;
+
+    private int cameraX;
+    private int cameraY;
+    private int cameraZ;
+    private int cameraPitch;
+    private int cameraYaw;
+    private int scale;
+    private int viewportX;
+    private int viewportY;
+    private int viewportWidth;
+    private int viewportHeight;
+    private int geometryBuild;
+    private RenderConfig renderConfig;
+
+    /**
+     * Checks the cached image against the current frame, and records the
+     * current frame as the new key if it does not match.
+     *
+     * @return true if the cached image can be drawn as it is
+     */
+    boolean update(Client client, int geometryBuild, RenderConfig renderConfig)
+    {
+        int cameraX = client.getCameraX();
+        int cameraY = client.getCameraY();
+        int cameraZ = client.getCameraZ();
+        int cameraPitch = client.getCameraPitch();
+        int cameraYaw = client.getCameraYaw();
+        int scale = client.getScale();
+        int viewportX = client.getViewportXOffset();
+        int viewportY = client.getViewportYOffset();
+        int viewportWidth = client.getViewportWidth();
+        int viewportHeight = client.getViewportHeight();
+
+        if (valid
+                && this.cameraX == cameraX && this.cameraY == cameraY && this.cameraZ == cameraZ
+                && this.cameraPitch == cameraPitch && this.cameraYaw == cameraYaw && this.scale == scale
+                && this.viewportX == viewportX && this.viewportY == viewportY
+                && this.viewportWidth == viewportWidth && this.viewportHeight == viewportHeight
+                && this.geometryBuild == geometryBuild && this.renderConfig == renderConfig)
+        {
+            return true;
+        }
+
+        this.cameraX = cameraX;
+        this.cameraY = cameraY;
+        this.cameraZ = cameraZ;
+        this.cameraPitch = cameraPitch;
+        this.cameraYaw = cameraYaw;
+        this.scale = scale;
+        this.viewportX = viewportX;
+        this.viewportY = viewportY;
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        this.geometryBuild = geometryBuild;
+        this.renderConfig = renderConfig;
+        valid = false;
+        return false;
+    }
+
+    /**
+     * Clears the image and returns a graphics context for redrawing the layer
+     * in canvas coordinates, or null if the viewport has no area.
+     */
+    Graphics2D begin(Graphics2D target)
+    {
+        if (viewportWidth <= 0 || viewportHeight <= 0)
+        {
+            return null;
+        }
+
+        if (image == null || image.getWidth() != viewportWidth || image.getHeight() != viewportHeight)
+        {
+            image = new BufferedImage(viewportWidth, viewportHeight, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        Graphics2D graphics = image.createGraphics();
+        Composite composite = graphics.getComposite();
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, viewportWidth, viewportHeight);
+        graphics.setComposite(composite);
+        graphics.setRenderingHints(target.getRenderingHints());
+        graphics.translate(-viewportX, -viewportY);
+        return graphics;
+    }
+
+    void end(Graphics2D graphics)
+    {
+        graphics.dispose();
+        valid = true;
+    }
+
+    void draw(Graphics2D graphics)
+    {
+        if (valid)
+        {
+            graphics.drawImage(image, viewportX, viewportY, null);
+        }
+    }
+
+    void invalidate()
+    {
+        valid = false;
+        image = null;
+        renderConfig = null;
+    }
+}
@@ -0,0 +1,214 @@
+package com.shipwrecksalvaging;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import net.runelite.api.Constants;
+
+/**
+ * Closed outlines around connected regions of scene tiles, one loop per
+ * region boundary. Loops are traced counter-clockwise over the tile edges that
+ * separate a flagged tile from an unflagged one, and only keep the corners
+ * where the outline turns.
+ */
+final class RangeOutlines
+{
+    static final int RANGE = 0;
+    static final int OVERLAP = 1;
+
+    private static final int SIZE = Constants.SCENE_SIZE;
+    private static final int CORNER_SIZE = SIZE + 1;
+
+    // Directions in counter-clockwise order, so (d + 1) & 3 is a left turn
+    private static final int EAST = 0;
+    private static final int NORTH = 1;
+    private static final int WEST = 2;
+    private static final int SOUTH = 3;
+    private static final int[] DX = {1, 0, -1, 0};
+    private static final int[] DY = {0, 1, 0, -1};
+
+    // Scratch bitmask of unvisited outgoing boundary edges per corner while tracing
+    private final byte[] outgoing = new byte[CORNER_SIZE * CORNER_SIZE];
+
+    private int outlineCount;
+    private int[] outlineStart = new int[0];
+    private int[] outlineLength = new int[0];
+    private byte[] outlineKind = new byte[0];
+
+    private int vertexCount;
+    private int[] vertices = new int[0];
+
+    void clear()
+    {
+        outlineCount = 0;
+        vertexCount = 0;
+    }
+
+    /**
+     * Traces the outlines of every region of tiles within the given scene
+     * rectangle whose {@code tileFlags} entry has {@code bit} set.
+     *
+     * @param tileFlags per-tile flags indexed by {@code sceneY * SCENE_SIZE + sceneX}
+     * @param cornerIndex maps a scene corner to the geometry's corner index
+     */
+    void trace(byte[] tileFlags, int bit, int kind, int minX, int minY, int maxX, int maxY,
+               IntBinaryOperator cornerIndex)
+    {
+        if (maxX < minX || maxY < minY)
+        {
+            return;
+        }
+
+        for (int y = minY; y <= maxY; y++)
+        {
+            for (int x = minX; x <= maxX; x++)
+            {
+                if (!isSet(tileFlags, bit, x, y))
+                {
+                    continue;
+                }
+
+                if (!isSet(tileFlags, bit, x, y - 1))
+                {
+                    outgoing[y * CORNER_SIZE + x] |= 1 << EAST;
+                }
+                if (!isSet(tileFlags, bit, x + 1, y))
+                {
+                    outgoing[y * CORNER_SIZE + x + 1] |= 1 << NORTH;
+                }
+                if (!isSet(tileFlags, bit, x, y + 1))
+                {
+                    outgoing[(y + 1) * CORNER_SIZE + x + 1] |= 1 << WEST;
+                }
+                if (!isSet(tileFlags, bit, x - 1, y))
+                {
+                    outgoing[(y + 1) * CORNER_SIZE + x] |= 1 << SOUTH;
+                }
+            }
+        }
+
+        // Start loops on corners with a single outgoing edge so that a loop ends
+        // exactly when it gets back to its start; saddle corners drop to a single
+        // edge once the first loop through them has been traced
+        for (int pass = 0; pass < 2; pass++)
+        {
+            for (int y = minY; y <= maxY + 1; y++)
+            {
+                for (int x = minX; x <= maxX + 1; x++)
+                {
+                    int out = outgoing[y * CORNER_SIZE + x];
+                    if (out != 0 && Integer.bitCount(out) == 1)
+                    {
+                        traceLoop(x, y, Integer.numberOfTrailingZeros(out), kind, cornerIndex);
+                    }
+                }
+            }
+        }
+    }
+
+    private void traceLoop(int startX, int startY, int startDirection, int kind, IntBinaryOperator cornerIndex)
+    {
+        int start = vertexCount;
+        int x = startX;
+        int y = startY;
+        int direction = startDirection;
+
+        addVertex(cornerIndex.applyAsInt(x, y));
+        outgoing[y * CORNER_SIZE + x] &= ~(1 << direction);
+
+        while (true)
+        {
+            x += DX[direction];
+            y += DY[direction];
+            if (x == startX && y == startY)
+            {
+                break;
+            }
+
+            int corner = y * CORNER_SIZE + x;
+            int out = outgoing[corner];
+            int next;
+            if ((out & (1 << ((direction + 1) & 3))) != 0)
+            {
+                next = (direction + 1) & 3;
+            }
+            else if ((out & (1 << direction)) != 0)
+            {
+                next = direction;
+            }
+            else
+            {
+                next = (direction + 3) & 3;
+            }
+
+            outgoing[corner] &= ~(1 << next);
+            if (next != direction)
+            {
+                addVertex(cornerIndex.applyAsInt(x, y));
+                direction = next;
+            }
+        }
+
+        if (outlineCount == outlineStart.length)
+        {
+            int capacity = Math.max(8, outlineCount * 2);
+            outlineStart = Arrays.copyOf(outlineStart, capacity);
+            outlineLength = Arrays.copyOf(outlineLength, capacity);
+            outlineKind = Arrays.copyOf(outlineKind, capacity);
+        }
+
+        outlineStart[outlineCount] = start;
+        outlineLength[outlineCount] = vertexCount - start;
+        outlineKind[outlineCount] = (byte) kind;
+        outlineCount++;
+    }
+
+    private void addVertex(int corner)
+    {
+        if (vertexCount == vertices.length)
+        {
+            vertices = Arrays.copyOf(vertices, Math.max(64, vertexCount * 2));
+        }
+        vertices[vertexCount++] = corner;
+    }
+
+    private static boolean isSet(byte[] tileFlags, int bit, int x, int y)
+    {
+        return x >= 0 && y >= 0 && x < SIZE && y < SIZE && (tileFlags[y * SIZE + x] & bit) != 0;
+    }
+
+    int getVertexCount()
+    {
+        return vertexCount;
+    }
+
+    /**
+     * Corner index of a vertex of any outline, for visiting every outline corner at once.
+     */
+    int getVertex(int vertex)
+    {
+        return vertices[vertex];
+    }
+
+    int getOutlineCount()
+    {
+        return outlineCount;
+    }
+
+    int getOutlineKind(int outline)
+    {
+        return outlineKind[outline];
+    }
+
+    int getOutlineLength(int outline)
+    {
+        return outlineLength[outline];
+    }
+
+    /**
+     * Corner index of the {@code vertex}th turning point of an outline.
+     */
+    int getOutlineCorner(int outline, int vertex)
+    {
+        return vertices[outlineStart[outline] + vertex];
+    }
+}
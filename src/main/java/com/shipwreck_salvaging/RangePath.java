@@ -0,0 +1,88 @@
+package com.shipwrecksalvaging;
+
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.Perspective;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+
+/**
+ * Route from the boat to the nearest tile in salvage range, read from the
+ * {@link RangeDistanceField} as tile centres with their ground heights once
+ * per game tick and projected per frame into reusable buffers.
+ */
+final class RangePath
+{
+    // Longest route kept, in tiles after the start
+    private static final int MAX_LENGTH = Constants.SCENE_SIZE * 2;
+
+    private final int[] tiles = new int[MAX_LENGTH];
+    private int count;
+    private final int[] localX = new int[MAX_LENGTH + 1];
+    private final int[] localY = new int[MAX_LENGTH + 1];
+    private final int[] height = new int[MAX_LENGTH + 1];
+    private final int[] canvasX = new int[MAX_LENGTH + 1];
+    private final int[] canvasY = new int[MAX_LENGTH + 1];
+
+    void update(Client client, RangeDistanceField field, int sceneX, int sceneY)
+    {
+        int length = field.route(sceneX, sceneY, tiles);
+        if (length == 0)
+        {
+            count = 0;
+            return;
+        }
+
+        WorldView worldView = client.getTopLevelWorldView();
+        setPoint(client, worldView, 0, sceneX, sceneY);
+        for (int i = 0; i < length; i++)
+        {
+            setPoint(client, worldView, i + 1, tiles[i] % Constants.SCENE_SIZE, tiles[i] / Constants.SCENE_SIZE);
+        }
+        count = length + 1;
+    }
+
+    private void setPoint(Client client, WorldView worldView, int point, int tileX, int tileY)
+    {
+        localX[point] = (tileX << Perspective.LOCAL_COORD_BITS) + Perspective.LOCAL_HALF_TILE_SIZE;
+        localY[point] = (tileY << Perspective.LOCAL_COORD_BITS) + Perspective.LOCAL_HALF_TILE_SIZE;
+        height[point] = Perspective.getTileHeight(client,
+                new LocalPoint(localX[point], localY[point], worldView.getId()), worldView.getPlane());
+    }
+
+    void clear()
+    {
+        count = 0;
+    }
+
+    void project(Client client)
+    {
+        if (count > 0)
+        {
+            Perspective.modelToCanvas(client, count, 0, 0, 0, 0, localX, localY, height, canvasX, canvasY);
+        }
+    }
+
+    /**
+     * Number of points on the route, the boat tile included, or 0 when there is none to draw.
+     */
+    int getCount()
+    {
+        return count;
+    }
+
+    boolean isVisible(int point)
+    {
+        return canvasX[point] != Integer.MIN_VALUE;
+    }
+
+    int getCanvasX(int point)
+    {
+        return canvasX[point];
+    }
+
+    int getCanvasY(int point)
+    {
+        return canvasY[point];
+    }
+}
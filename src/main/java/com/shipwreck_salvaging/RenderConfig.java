@@ -0,0 +1,303 @@
+package com.shipwrecksalvaging;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Stroke;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable snapshot of every value the overlay reads while rendering. Built
+ * once per {@code ConfigChanged} so the render path never touches the config
+ * proxy or allocates paint objects.
+ */
+final class RenderConfig
+{
+    private static final int SHIPWRECK_FILL_ALPHA = 50;
+    private static final int BEST_POSITION_FILL_ALPHA = 80;
+    // Hull coverage marker colors, indexed by HullCoverage status
+    private static final Color[] HULL_COVERAGE_COLORS = {Color.RED, Color.YELLOW, Color.GREEN};
+    // Coverage depths at or above this share the heatmap peak color
+    static final int HEATMAP_MAX_DEPTH = 6;
+    private static final Stroke SHIPWRECK_STROKE = new BasicStroke(2);
+    private static final Stroke NPC_MARKER_STROKE = new BasicStroke(1);
+
+    private final int enabledTypes;
+
+    private final boolean showSalvageRange;
+    private final Color fillColor;
+    private final Color borderColor;
+    private final Stroke borderStroke;
+    private final boolean mergeOutlines;
+    private final boolean cacheRangeLayer;
+
+    private final boolean adaptiveDetail;
+    private final long renderBudgetNanos;
+    private final boolean showMetrics;
+
+    private final boolean showOverlap;
+    private final Color overlapFillColor;
+    private final Color overlapBorderColor;
+    private final boolean overlapHeatmap;
+    // Fill color per coverage depth, index 0 unused
+    private final Color[] heatmapColors;
+    private final boolean showBestPosition;
+    private final Color bestPositionColor;
+    private final Color bestPositionFillColor;
+
+    private final boolean highlightShipwreck;
+    private final Color shipwreckColor;
+    private final Color shipwreckFillColor;
+
+    private final boolean showNpcMarker;
+    private final Color npcMarkerColor;
+    private final boolean showHullCoverage;
+    private final boolean showRangePath;
+    private final Color rangePathColor;
+
+    private final boolean showOnWorldMap;
+    private final boolean showOnMinimap;
+
+    private RenderConfig(ShipwreckSalvagingConfig config)
+    {
+        enabledTypes = ShipwreckType.enabledTypes(config);
+
+        Color tileFillColor = config.tileFillColor();
+        showSalvageRange = config.showSalvageRange();
+        fillColor = new Color(tileFillColor.getRed(), tileFillColor.getGreen(), tileFillColor.getBlue(), config.fillOpacity());
+        borderColor = config.tileBorderColor();
+        borderStroke = new BasicStroke(config.tileBorderWidth());
+        mergeOutlines = config.mergeOutlines();
+        cacheRangeLayer = config.cacheRangeLayer();
+
+        adaptiveDetail = config.adaptiveDetail();
+        renderBudgetNanos = TimeUnit.MILLISECONDS.toNanos(config.renderBudget());
+        showMetrics = config.showMetrics();
+
+        showOverlap = config.showOverlap();
+        overlapFillColor = config.overlapFillColor();
+        overlapBorderColor = config.overlapBorderColor();
+        overlapHeatmap = showOverlap && config.overlapHeatmap();
+        heatmapColors = buildHeatmap(fillColor, overlapFillColor, config.heatmapPeakColor());
+        showBestPosition = config.showBestPosition();
+        bestPositionColor = config.bestPositionColor();
+        bestPositionFillColor = new Color(bestPositionColor.getRed(), bestPositionColor.getGreen(),
+                bestPositionColor.getBlue(), BEST_POSITION_FILL_ALPHA);
+
+        highlightShipwreck = config.highlightShipwreck();
+        shipwreckColor = config.shipwreckColor();
+        shipwreckFillColor = new Color(shipwreckColor.getRed(), shipwreckColor.getGreen(), shipwreckColor.getBlue(), SHIPWRECK_FILL_ALPHA);
+
+        showNpcMarker = config.showNpcMarker();
+        npcMarkerColor = config.npcMarkerColor();
+        showHullCoverage = config.showHullCoverage();
+        showRangePath = config.showRangePath();
+        rangePathColor = config.rangePathColor();
+
+        showOnWorldMap = config.showOnWorldMap();
+        showOnMinimap = config.showOnMinimap();
+    }
+
+    /**
+     * One range gets the range fill, two the overlap fill, and deeper overlaps
+     * blend from there to the peak color.
+     */
+    private static Color[] buildHeatmap(Color single, Color overlap, Color peak)
+    {
+        Color[] colors = new Color[HEATMAP_MAX_DEPTH + 1];
+        colors[1] = single;
+        for (int depth = 2; depth <= HEATMAP_MAX_DEPTH; depth++)
+        {
+            float t = (depth - 2) / (float) (HEATMAP_MAX_DEPTH - 2);
+            colors[depth] = new Color(
+                    blend(overlap.getRed(), peak.getRed(), t),
+                    blend(overlap.getGreen(), peak.getGreen(), t),
+                    blend(overlap.getBlue(), peak.getBlue(), t),
+                    blend(overlap.getAlpha(), peak.getAlpha(), t));
+        }
+        return colors;
+    }
+
+    private static int blend(int from, int to, float t)
+    {
+        return Math.round(from + (to - from) * t);
+    }
+
+    static RenderConfig from(ShipwreckSalvagingConfig config)
+    {
+        return new RenderConfig(config);
+    }
+
+    /**
+     * Bitmask of {@link ShipwreckType#mask()} for every type whose "show" toggle is on.
+     */
+    int getEnabledTypes()
+    {
+        return enabledTypes;
+    }
+
+    boolean isShowSalvageRange()
+    {
+        return showSalvageRange;
+    }
+
+    Color getFillColor()
+    {
+        return fillColor;
+    }
+
+    Color getBorderColor()
+    {
+        return borderColor;
+    }
+
+    Stroke getBorderStroke()
+    {
+        return borderStroke;
+    }
+
+    boolean isMergeOutlines()
+    {
+        return mergeOutlines;
+    }
+
+    boolean isCacheRangeLayer()
+    {
+        return cacheRangeLayer;
+    }
+
+    boolean isAdaptiveDetail()
+    {
+        return adaptiveDetail;
+    }
+
+    long getRenderBudgetNanos()
+    {
+        return renderBudgetNanos;
+    }
+
+    boolean isShowMetrics()
+    {
+        return showMetrics;
+    }
+
+    boolean isShowOverlap()
+    {
+        return showOverlap;
+    }
+
+    Color getOverlapFillColor()
+    {
+        return overlapFillColor;
+    }
+
+    Color getOverlapBorderColor()
+    {
+        return overlapBorderColor;
+    }
+
+    /**
+     * Whether range tiles are filled by coverage depth rather than as single or overlapping.
+     */
+    boolean isOverlapHeatmap()
+    {
+        return overlapHeatmap;
+    }
+
+    /**
+     * Heatmap fill of a coverage depth between 1 and {@link #HEATMAP_MAX_DEPTH}.
+     */
+    Color getHeatmapColor(int depth)
+    {
+        return heatmapColors[depth];
+    }
+
+    boolean isShowBestPosition()
+    {
+        return showBestPosition;
+    }
+
+    Color getBestPositionColor()
+    {
+        return bestPositionColor;
+    }
+
+    Color getBestPositionFillColor()
+    {
+        return bestPositionFillColor;
+    }
+
+    Stroke getBestPositionStroke()
+    {
+        return SHIPWRECK_STROKE;
+    }
+
+    boolean isHighlightShipwreck()
+    {
+        return highlightShipwreck;
+    }
+
+    Color getShipwreckColor()
+    {
+        return shipwreckColor;
+    }
+
+    Color getShipwreckFillColor()
+    {
+        return shipwreckFillColor;
+    }
+
+    Stroke getShipwreckStroke()
+    {
+        return SHIPWRECK_STROKE;
+    }
+
+    boolean isShowNpcMarker()
+    {
+        return showNpcMarker;
+    }
+
+    Color getNpcMarkerColor()
+    {
+        return npcMarkerColor;
+    }
+
+    Stroke getNpcMarkerStroke()
+    {
+        return NPC_MARKER_STROKE;
+    }
+
+    boolean isShowHullCoverage()
+    {
+        return showHullCoverage;
+    }
+
+    Color getHullCoverageColor(int status)
+    {
+        return HULL_COVERAGE_COLORS[status];
+    }
+
+    boolean isShowRangePath()
+    {
+        return showRangePath;
+    }
+
+    Color getRangePathColor()
+    {
+        return rangePathColor;
+    }
+
+    Stroke getRangePathStroke()
+    {
+        return SHIPWRECK_STROKE;
+    }
+
+    boolean isShowOnWorldMap()
+    {
+        return showOnWorldMap;
+    }
+
+    boolean isShowOnMinimap()
+    {
+        return showOnMinimap;
+    }
+}
@@ -0,0 +1,108 @@
+package com.shipwrecksalvaging;
+
+import java.util.Arrays;
+
+/**
+ * Rolling per-frame cost of the overlay over the last {@link #WINDOW} frames,
+ * kept in fixed-size ring buffers so that recording does not allocate.
+ */
+final class RenderMetrics
+{
+    static final int WINDOW = 256;
+
+    private final long[] renderNanos = new long[WINDOW];
+    private final int[] projectedCorners = new int[WINDOW];
+    private final int[] drawCalls = new int[WINDOW];
+    // Scratch copy of renderNanos for percentiles
+    private final long[] sorted = new long[WINDOW];
+    private int next;
+    private int size;
+
+    private long layerCacheHits;
+    private long layerCacheMisses;
+
+    void record(long nanos, int corners, int calls)
+    {
+        renderNanos[next] = nanos;
+        projectedCorners[next] = corners;
+        drawCalls[next] = calls;
+        next = (next + 1) % WINDOW;
+        size = Math.min(size + 1, WINDOW);
+    }
+
+    void recordLayerCache(boolean hit)
+    {
+        if (hit)
+        {
+            layerCacheHits++;
+        }
+        else
+        {
+            layerCacheMisses++;
+        }
+    }
+
+    int getFrames()
+    {
+        return size;
+    }
+
+    /**
+     * Render time at the given percentile of the window, between 0 and 1.
+     */
+    long getRenderNanos(double percentile)
+    {
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        System.arraycopy(renderNanos, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        int rank = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, rank))];
+    }
+
+    double getAverageProjectedCorners()
+    {
+        return average(projectedCorners);
+    }
+
+    double getAverageDrawCalls()
+    {
+        return average(drawCalls);
+    }
+
+    private double average(int[] values)
+    {
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        long total = 0;
+        for (int i = 0; i < size; i++)
+        {
+            total += values[i];
+        }
+        return (double) total / size;
+    }
+
+    long getLayerCacheHits()
+    {
+        return layerCacheHits;
+    }
+
+    long getLayerCacheMisses()
+    {
+        return layerCacheMisses;
+    }
+
+    void reset()
+    {
+        next = 0;
+        size = 0;
+        layerCacheHits = 0;
+        layerCacheMisses = 0;
+    }
+}
@@ -0,0 +1,145 @@
+package com.shipwrecksalvaging;
+
+import java.util.Arrays;
+import net.runelite.api.Constants;
+
+/**
+ * Finds the scene tiles in range of the most salvageable shipwrecks.
+ * <p>
+ * Each range box adds +1/-1 at its four corners of a difference array, and a
+ * single 2D prefix sum over the scene turns that into the number of ranges
+ * covering every tile, so solving is linear in the scene size however large
+ * or numerous the ranges are. The tiles sharing the highest count are kept so
+ * the one nearest the boat can be picked each tick without solving again.
+ */
+final class SalvagePositionSolver
+{
+    private static final int SIZE = Constants.SCENE_SIZE;
+    // One extra row and column for the -1 entries just past a range clipped to the scene edge
+    private static final int DIFF_SIZE = SIZE + 1;
+
+    private final int[] coverage = new int[DIFF_SIZE * DIFF_SIZE];
+    private int maxCoverage;
+    private int candidateCount;
+    // Scene tiles with the highest coverage, packed as sceneY * SCENE_SIZE + sceneX
+    private int[] candidates = new int[0];
+
+    /**
+     * Recomputes coverage from the packed scene origins of the ranges on one plane.
+     */
+    void solve(int[] rangeOrigins, int rangeCount, int plane)
+    {
+        Arrays.fill(coverage, 0);
+        maxCoverage = 0;
+        candidateCount = 0;
+
+        for (int range = 0; range < rangeCount; range++)
+        {
+            int origin = rangeOrigins[range];
+            if (SalvageRangeGrid.unpackPlane(origin) != plane)
+            {
+                continue;
+            }
+
+            int minX = Math.max(0, SalvageRangeGrid.unpackX(origin) + SalvageRangeGrid.RANGE_MIN_OFFSET);
+            int maxX = Math.min(SIZE - 1, SalvageRangeGrid.unpackX(origin) + SalvageRangeGrid.RANGE_MAX_OFFSET);
+            int minY = Math.max(0, SalvageRangeGrid.unpackY(origin) + SalvageRangeGrid.RANGE_MIN_OFFSET);
+            int maxY = Math.min(SIZE - 1, SalvageRangeGrid.unpackY(origin) + SalvageRangeGrid.RANGE_MAX_OFFSET);
+            if (minX > maxX || minY > maxY)
+            {
+                continue;
+            }
+
+            coverage[minY * DIFF_SIZE + minX]++;
+            coverage[minY * DIFF_SIZE + maxX + 1]--;
+            coverage[(maxY + 1) * DIFF_SIZE + minX]--;
+            coverage[(maxY + 1) * DIFF_SIZE + maxX + 1]++;
+        }
+
+        // In-place prefix sum: each entry adds the sums to its west and south and removes their overlap
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                int index = y * DIFF_SIZE + x;
+                int count = coverage[index];
+                if (x > 0)
+                {
+                    count += coverage[index - 1];
+                }
+                if (y > 0)
+                {
+                    count += coverage[index - DIFF_SIZE];
+                }
+                if (x > 0 && y > 0)
+                {
+                    count -= coverage[index - DIFF_SIZE - 1];
+                }
+                coverage[index] = count;
+
+                if (count > maxCoverage)
+                {
+                    maxCoverage = count;
+                    candidateCount = 0;
+                }
+                if (count == maxCoverage && count > 0)
+                {
+                    addCandidate(y * SIZE + x);
+                }
+            }
+        }
+    }
+
+    private void addCandidate(int tile)
+    {
+        if (candidateCount == candidates.length)
+        {
+            candidates = Arrays.copyOf(candidates, Math.max(64, candidateCount * 2));
+        }
+        candidates[candidateCount++] = tile;
+    }
+
+    /**
+     * Number of ranges covering a scene tile as of the last solve.
+     */
+    int getCoverage(int sceneX, int sceneY)
+    {
+        return coverage[sceneY * DIFF_SIZE + sceneX];
+    }
+
+    /**
+     * Highest coverage of any tile, 0 if no range is on the plane.
+     */
+    int getMaxCoverage()
+    {
+        return maxCoverage;
+    }
+
+    int getCandidateCount()
+    {
+        return candidateCount;
+    }
+
+    /**
+     * The tile with the highest coverage nearest to the given scene position,
+     * packed as {@code sceneY * SCENE_SIZE + sceneX}, or -1 if there is none.
+     * Ties in distance go to the tile found first, which is the southmost, then westmost.
+     */
+    int nearest(int sceneX, int sceneY)
+    {
+        int best = -1;
+        long bestDistance = Long.MAX_VALUE;
+        for (int i = 0; i < candidateCount; i++)
+        {
+            int dx = candidates[i] % SIZE - sceneX;
+            int dy = candidates[i] / SIZE - sceneY;
+            long distance = (long) dx * dx + (long) dy * dy;
+            if (distance < bestDistance)
+            {
+                best = candidates[i];
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,454 @@
+package com.shipwrecksalvaging;
+
+import java.util.Arrays;
+import net.runelite.api.Constants;
+import net.runelite.api.Perspective;
+
+/**
+ * World-space part of the salvage range overlay: the union of every range
+ * tile on the current plane, which sides of each tile lie on a range border
+ * and whether it overlaps another range. Only rebuilt when the wreck set,
+ * config or plane change, leaving projection and drawing to the render path.
+ * Built from a {@link GeometrySnapshot} by the {@link GeometryWorker} and not
+ * modified once built.
+ * <p>
+ * Tiles and depleted wreck highlights reference a shared list of distinct
+ * tile corners, so each corner is projected once per frame however many
+ * tiles and ranges meet at it. The boundaries of the covered and overlapping
+ * regions are also traced into merged {@link RangeOutlines}.
+ * <p>
+ * Tiles are stored in 8x8 scene-aligned blocks, each with the corners of its
+ * bounding box, so the render path can cull a block against the viewport
+ * before touching its tiles.
+ */
+final class SalvageRangeGeometry
+{
+    static final int EDGE_SOUTH = 1;
+    static final int EDGE_EAST = 1 << 1;
+    static final int EDGE_NORTH = 1 << 2;
+    static final int EDGE_WEST = 1 << 3;
+    private static final int COVERED = 1 << 4;
+    private static final int OVERLAP = 1 << 5;
+
+    // Corner order of a tile or highlight, matching Perspective's tile polygons
+    static final int SW = 0;
+    static final int SE = 1;
+    static final int NE = 2;
+    static final int NW = 3;
+
+    private static final int SIZE = Constants.SCENE_SIZE;
+    private static final int CORNER_SIZE = SIZE + 1;
+    private static final int BLOCK_BITS = 3;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    // Sizes of the scratch buffers a build needs, see build()
+    static final int TILE_FLAGS_SIZE = SIZE * SIZE;
+    static final int CORNER_LOOKUP_SIZE = CORNER_SIZE * CORNER_SIZE;
+
+    static final SalvageRangeGeometry EMPTY = new SalvageRangeGeometry(0);
+
+    private final int buildCount;
+    private int tileCount;
+    private int[] tileX = new int[0];
+    private int[] tileY = new int[0];
+    private byte[] tileEdges = new byte[0];
+    private boolean[] tileOverlap = new boolean[0];
+    // Number of ranges covering each tile, capped at RenderConfig.HEATMAP_MAX_DEPTH
+    private byte[] tileDepth = new byte[0];
+    private int[] tileCorners = new int[0];
+
+    private int blockCount;
+    // Tiles of block b are [blockTileEnd[b - 1], blockTileEnd[b])
+    private int[] blockTileEnd = new int[0];
+    private int[] blockCorners = new int[0];
+
+    private int highlightCount;
+    private int[] highlightCorners = new int[0];
+
+    // Centre corner of every salvageable wreck, for the marker-only detail level
+    private int markerCount;
+    private int[] markerCorners = new int[0];
+
+    private final RangeOutlines outlines = new RangeOutlines();
+
+    private int cornerCount;
+    private int[] cornerX = new int[0];
+    private int[] cornerY = new int[0];
+    private int[] cornerZ = new int[0];
+
+    private SalvageRangeGeometry(int buildCount)
+    {
+        this.buildCount = buildCount;
+    }
+
+    /**
+     * Builds the geometry for a snapshot. The result is not changed afterwards,
+     * so it can be handed to another thread once published safely.
+     *
+     * @param tileFlags zeroed scratch of {@link #TILE_FLAGS_SIZE}, left zeroed again
+     * @param cornerLookup zeroed scratch of {@link #CORNER_LOOKUP_SIZE}, left zeroed again
+     */
+    static SalvageRangeGeometry build(GeometrySnapshot snapshot, byte[] tileFlags, int[] cornerLookup)
+    {
+        SalvageRangeGeometry geometry = new SalvageRangeGeometry(snapshot.getSequence());
+        geometry.build(snapshot, snapshot.getRenderConfig(), tileFlags, cornerLookup);
+        return geometry;
+    }
+
+    private void build(GeometrySnapshot snapshot, RenderConfig renderConfig, byte[] tileFlags, int[] cornerLookup)
+    {
+        int minX = SIZE, minY = SIZE, maxX = -1, maxY = -1;
+        for (int range = 0; range < snapshot.getRangeCount(); range++)
+        {
+            int origin = snapshot.getRangeOrigin(range);
+            int originX = SalvageRangeGrid.unpackX(origin);
+            int originY = SalvageRangeGrid.unpackY(origin);
+            int boxMinX = originX + SalvageRangeGrid.RANGE_MIN_OFFSET;
+            int boxMaxX = originX + SalvageRangeGrid.RANGE_MAX_OFFSET;
+            int boxMinY = originY + SalvageRangeGrid.RANGE_MIN_OFFSET;
+            int boxMaxY = originY + SalvageRangeGrid.RANGE_MAX_OFFSET;
+
+            int clipMinX = Math.max(0, boxMinX);
+            int clipMaxX = Math.min(SIZE - 1, boxMaxX);
+            int clipMinY = Math.max(0, boxMinY);
+            int clipMaxY = Math.min(SIZE - 1, boxMaxY);
+            if (clipMinX > clipMaxX || clipMinY > clipMaxY)
+            {
+                continue;
+            }
+
+            for (int y = clipMinY; y <= clipMaxY; y++)
+            {
+                for (int x = clipMinX; x <= clipMaxX; x++)
+                {
+                    int edges = COVERED;
+                    if (x == boxMinX)
+                    {
+                        edges |= EDGE_WEST;
+                    }
+                    if (x == boxMaxX)
+                    {
+                        edges |= EDGE_EAST;
+                    }
+                    if (y == boxMinY)
+                    {
+                        edges |= EDGE_SOUTH;
+                    }
+                    if (y == boxMaxY)
+                    {
+                        edges |= EDGE_NORTH;
+                    }
+                    tileFlags[y * SIZE + x] |= edges;
+                }
+            }
+
+            minX = Math.min(minX, clipMinX);
+            maxX = Math.max(maxX, clipMaxX);
+            minY = Math.min(minY, clipMinY);
+            maxY = Math.max(maxY, clipMaxY);
+        }
+
+        if (maxX >= 0)
+        {
+            ensureTileCapacity((maxX - minX + 1) * (maxY - minY + 1));
+            ensureCornerCapacity((maxX - minX + 2) * (maxY - minY + 2));
+            boolean showOverlap = renderConfig.isShowOverlap();
+
+            // Tiles are grouped into scene-aligned blocks so whole blocks can be culled before projection
+            for (int blockY = minY >> BLOCK_BITS; blockY <= maxY >> BLOCK_BITS; blockY++)
+            {
+                for (int blockX = minX >> BLOCK_BITS; blockX <= maxX >> BLOCK_BITS; blockX++)
+                {
+                    int blockStart = tileCount;
+                    int blockMinX = SIZE, blockMinY = SIZE, blockMaxX = -1, blockMaxY = -1;
+
+                    int startY = Math.max(minY, blockY << BLOCK_BITS);
+                    int endY = Math.min(maxY, (blockY << BLOCK_BITS) + BLOCK_SIZE - 1);
+                    int startX = Math.max(minX, blockX << BLOCK_BITS);
+                    int endX = Math.min(maxX, (blockX << BLOCK_BITS) + BLOCK_SIZE - 1);
+                    for (int y = startY; y <= endY; y++)
+                    {
+                        for (int x = startX; x <= endX; x++)
+                        {
+                            int flags = tileFlags[y * SIZE + x];
+                            if ((flags & COVERED) == 0)
+                            {
+                                continue;
+                            }
+
+                            tileX[tileCount] = (x << Perspective.LOCAL_COORD_BITS) + Perspective.LOCAL_HALF_TILE_SIZE;
+                            tileY[tileCount] = (y << Perspective.LOCAL_COORD_BITS) + Perspective.LOCAL_HALF_TILE_SIZE;
+                            tileEdges[tileCount] = (byte) (flags & ~COVERED);
+                            int depth = snapshot.getOverlapCount(x, y);
+                            tileDepth[tileCount] = (byte) Math.min(depth, RenderConfig.HEATMAP_MAX_DEPTH);
+                            tileOverlap[tileCount] = showOverlap && depth > 1;
+                            if (tileOverlap[tileCount])
+                            {
+                                tileFlags[y * SIZE + x] |= OVERLAP;
+                            }
+                            int corners = tileCount * 4;
+                            tileCorners[corners + SW] = corner(x, y, snapshot, cornerLookup);
+                            tileCorners[corners + SE] = corner(x + 1, y, snapshot, cornerLookup);
+                            tileCorners[corners + NE] = corner(x + 1, y + 1, snapshot, cornerLookup);
+                            tileCorners[corners + NW] = corner(x, y + 1, snapshot, cornerLookup);
+                            tileCount++;
+
+                            blockMinX = Math.min(blockMinX, x);
+                            blockMinY = Math.min(blockMinY, y);
+                            blockMaxX = Math.max(blockMaxX, x);
+                            blockMaxY = Math.max(blockMaxY, y);
+                        }
+                    }
+
+                    if (tileCount == blockStart)
+                    {
+                        continue;
+                    }
+
+                    ensureBlockCapacity(blockCount + 1);
+                    blockTileEnd[blockCount] = tileCount;
+                    int corners = blockCount * 4;
+                    blockCorners[corners + SW] = corner(blockMinX, blockMinY, snapshot, cornerLookup);
+                    blockCorners[corners + SE] = corner(blockMaxX + 1, blockMinY, snapshot, cornerLookup);
+                    blockCorners[corners + NE] = corner(blockMaxX + 1, blockMaxY + 1, snapshot, cornerLookup);
+                    blockCorners[corners + NW] = corner(blockMinX, blockMaxY + 1, snapshot, cornerLookup);
+                    blockCount++;
+                }
+            }
+
+            outlines.trace(tileFlags, COVERED, RangeOutlines.RANGE, minX, minY, maxX, maxY,
+                    (x, y) -> corner(x, y, snapshot, cornerLookup));
+            outlines.trace(tileFlags, OVERLAP, RangeOutlines.OVERLAP, minX, minY, maxX, maxY,
+                    (x, y) -> corner(x, y, snapshot, cornerLookup));
+
+            for (int y = minY; y <= maxY; y++)
+            {
+                Arrays.fill(tileFlags, y * SIZE + minX, y * SIZE + maxX + 1, (byte) 0);
+            }
+        }
+
+        for (int range = 0; range < snapshot.getRangeCount(); range++)
+        {
+            int origin = snapshot.getRangeOrigin(range);
+            int centreX = SalvageRangeGrid.unpackX(origin) + SalvageRangeGrid.SHIPWRECK_SIZE / 2;
+            int centreY = SalvageRangeGrid.unpackY(origin) + SalvageRangeGrid.SHIPWRECK_SIZE / 2;
+            if (centreX < 0 || centreY < 0 || centreX > SIZE || centreY > SIZE)
+            {
+                continue;
+            }
+
+            if (markerCount == markerCorners.length)
+            {
+                markerCorners = Arrays.copyOf(markerCorners, Math.max(8, markerCount * 2));
+            }
+            ensureCornerCapacity(cornerCount + 1);
+            markerCorners[markerCount++] = corner(centreX, centreY, snapshot, cornerLookup);
+        }
+
+        for (int highlight = 0; highlight < snapshot.getHighlightCount(); highlight++)
+        {
+            // The local location of an even-sized object is the corner at its centre
+            int halfSize = SalvageRangeGrid.SHIPWRECK_SIZE / 2;
+            int minCornerX = (snapshot.getHighlightX(highlight) >> Perspective.LOCAL_COORD_BITS) - halfSize;
+            int minCornerY = (snapshot.getHighlightY(highlight) >> Perspective.LOCAL_COORD_BITS) - halfSize;
+            int maxCornerX = minCornerX + SalvageRangeGrid.SHIPWRECK_SIZE;
+            int maxCornerY = minCornerY + SalvageRangeGrid.SHIPWRECK_SIZE;
+            if (minCornerX < 0 || minCornerY < 0 || maxCornerX > SIZE || maxCornerY > SIZE)
+            {
+                continue;
+            }
+
+            if ((highlightCount + 1) * 4 > highlightCorners.length)
+            {
+                highlightCorners = Arrays.copyOf(highlightCorners, Math.max(16, highlightCorners.length * 2));
+            }
+            ensureCornerCapacity(cornerCount + 4);
+
+            int corners = highlightCount * 4;
+            highlightCorners[corners + SW] = corner(minCornerX, minCornerY, snapshot, cornerLookup);
+            highlightCorners[corners + SE] = corner(maxCornerX, minCornerY, snapshot, cornerLookup);
+            highlightCorners[corners + NE] = corner(maxCornerX, maxCornerY, snapshot, cornerLookup);
+            highlightCorners[corners + NW] = corner(minCornerX, maxCornerY, snapshot, cornerLookup);
+            highlightCount++;
+        }
+
+        for (int i = 0; i < cornerCount; i++)
+        {
+            cornerLookup[(cornerY[i] >> Perspective.LOCAL_COORD_BITS) * CORNER_SIZE + (cornerX[i] >> Perspective.LOCAL_COORD_BITS)] = 0;
+        }
+    }
+
+    /**
+     * Index of the tile corner at the given scene corner coordinates, adding it
+     * with its local position and ground height if it is not in the list yet.
+     */
+    private int corner(int x, int y, GeometrySnapshot snapshot, int[] cornerLookup)
+    {
+        int lookup = y * CORNER_SIZE + x;
+        if (cornerLookup[lookup] != 0)
+        {
+            return cornerLookup[lookup] - 1;
+        }
+
+        int index = cornerCount++;
+        cornerX[index] = x << Perspective.LOCAL_COORD_BITS;
+        cornerY[index] = y << Perspective.LOCAL_COORD_BITS;
+        cornerZ[index] = snapshot.getCornerHeight(x, y);
+        cornerLookup[lookup] = index + 1;
+        return index;
+    }
+
+    private void ensureTileCapacity(int capacity)
+    {
+        if (tileX.length >= capacity)
+        {
+            return;
+        }
+
+        tileX = new int[capacity];
+        tileY = new int[capacity];
+        tileEdges = new byte[capacity];
+        tileOverlap = new boolean[capacity];
+        tileDepth = new byte[capacity];
+        tileCorners = new int[capacity * 4];
+    }
+
+    private void ensureBlockCapacity(int capacity)
+    {
+        if (blockTileEnd.length >= capacity)
+        {
+            return;
+        }
+
+        capacity = Math.max(capacity, blockTileEnd.length * 2);
+        blockTileEnd = Arrays.copyOf(blockTileEnd, capacity);
+        blockCorners = Arrays.copyOf(blockCorners, capacity * 4);
+    }
+
+    private void ensureCornerCapacity(int capacity)
+    {
+        if (cornerX.length >= capacity)
+        {
+            return;
+        }
+
+        capacity = Math.max(capacity, cornerX.length * 2);
+        cornerX = Arrays.copyOf(cornerX, capacity);
+        cornerY = Arrays.copyOf(cornerY, capacity);
+        cornerZ = Arrays.copyOf(cornerZ, capacity);
+    }
+
+    /**
+     * Sequence of the snapshot the geometry was built from, for keying downstream caches.
+     */
+    int getBuildCount()
+    {
+        return buildCount;
+    }
+
+    int getTileCount()
+    {
+        return tileCount;
+    }
+
+    int getTileX(int tile)
+    {
+        return tileX[tile];
+    }
+
+    int getTileY(int tile)
+    {
+        return tileY[tile];
+    }
+
+    int getTileEdges(int tile)
+    {
+        return tileEdges[tile];
+    }
+
+    boolean isTileOverlap(int tile)
+    {
+        return tileOverlap[tile];
+    }
+
+    /**
+     * Number of ranges covering the tile, from 1 up to {@link RenderConfig#HEATMAP_MAX_DEPTH}.
+     */
+    int getTileDepth(int tile)
+    {
+        return tileDepth[tile];
+    }
+
+    int getTileCorner(int tile, int corner)
+    {
+        return tileCorners[tile * 4 + corner];
+    }
+
+    int getBlockCount()
+    {
+        return blockCount;
+    }
+
+    int getBlockTileStart(int block)
+    {
+        return block == 0 ? 0 : blockTileEnd[block - 1];
+    }
+
+    int getBlockTileEnd(int block)
+    {
+        return blockTileEnd[block];
+    }
+
+    /**
+     * Corner of the bounding box of the covered tiles in a block.
+     */
+    int getBlockCorner(int block, int corner)
+    {
+        return blockCorners[block * 4 + corner];
+    }
+
+    int getHighlightCount()
+    {
+        return highlightCount;
+    }
+
+    int getHighlightCorner(int highlight, int corner)
+    {
+        return highlightCorners[highlight * 4 + corner];
+    }
+
+    RangeOutlines getOutlines()
+    {
+        return outlines;
+    }
+
+    int getMarkerCount()
+    {
+        return markerCount;
+    }
+
+    int getMarkerCorner(int marker)
+    {
+        return markerCorners[marker];
+    }
+
+    int getCornerCount()
+    {
+        return cornerCount;
+    }
+
+    int[] getCornerX()
+    {
+        return cornerX;
+    }
+
+    int[] getCornerY()
+    {
+        return cornerY;
+    }
+
+    int[] getCornerZ()
+    {
+        return cornerZ;
+    }
+}
@@ -0,0 +1,177 @@
+package com.shipwrecksalvaging;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.api.Constants;
+import net.runelite.api.GameObject;
+
+/**
+ * Number of salvageable shipwreck ranges covering each scene tile. Footprints
+ * are added and subtracted as wrecks spawn, despawn and are toggled, so reading
+ * the overlap state of a tile is a single array access.
+ * <p>
+ * This is also the one store of which wreck counts with which origin. The
+ * packed origins of the added wrecks sit in a dense array, so every reader
+ * walks the ranges without boxing, and a map from wreck to slot removes one
+ * without a search.
+ */
+final class SalvageRangeGrid
+{
+    static final int SALVAGE_RANGE = 7;
+    static final int SHIPWRECK_SIZE = 2;
+    // The range reaches one further tile north and east for the extra half tile on those sides
+    static final int RANGE_MIN_OFFSET = -SALVAGE_RANGE;
+    static final int RANGE_MAX_OFFSET = SHIPWRECK_SIZE - 1 + SALVAGE_RANGE + 1;
+
+    private static final int SIZE = Constants.SCENE_SIZE;
+    private static final int PLANE_SIZE = SIZE * SIZE;
+    // Packed coordinates are offset so that a wreck just outside the scene, whose range reaches into it, packs too
+    private static final int PACK_OFFSET = 128;
+
+    private final short[] counts = new short[PLANE_SIZE * Constants.MAX_Z];
+    // Packed origin of each added wreck, in no particular order, and the wreck in the same slot
+    private int[] origins = new int[16];
+    private GameObject[] shipwrecks = new GameObject[16];
+    private final Map<GameObject, Integer> slots = new HashMap<>();
+    private int originCount;
+
+    static int pack(int sceneX, int sceneY, int plane)
+    {
+        return (plane << 16) | ((sceneY + PACK_OFFSET) << 8) | (sceneX + PACK_OFFSET);
+    }
+
+    static int unpackX(int packed)
+    {
+        return (packed & 0xFF) - PACK_OFFSET;
+    }
+
+    static int unpackY(int packed)
+    {
+        return ((packed >> 8) & 0xFF) - PACK_OFFSET;
+    }
+
+    /**
+     * Whether any tile of the salvage range of a shipwreck whose south-west
+     * tile is at the scene position lies in the scene. The position itself may
+     * be outside it.
+     */
+    static boolean reachesScene(int sceneX, int sceneY)
+    {
+        return sceneX + RANGE_MAX_OFFSET >= 0 && sceneX + RANGE_MIN_OFFSET < SIZE
+                && sceneY + RANGE_MAX_OFFSET >= 0 && sceneY + RANGE_MIN_OFFSET < SIZE;
+    }
+
+    static int unpackPlane(int packed)
+    {
+        return packed >>> 16;
+    }
+
+    /**
+     * Counts the range of the shipwreck, whose south-west tile is at the packed
+     * scene position, unless it is counted already.
+     */
+    void add(GameObject shipwreck, int packedOrigin)
+    {
+        if (slots.containsKey(shipwreck))
+        {
+            return;
+        }
+
+        if (originCount == origins.length)
+        {
+            origins = Arrays.copyOf(origins, originCount * 2);
+            shipwrecks = Arrays.copyOf(shipwrecks, originCount * 2);
+        }
+        origins[originCount] = packedOrigin;
+        shipwrecks[originCount] = shipwreck;
+        slots.put(shipwreck, originCount++);
+        addFootprint(packedOrigin, 1);
+    }
+
+    /**
+     * Stops counting the range of the shipwreck, moving the last origin into its slot.
+     */
+    void remove(GameObject shipwreck)
+    {
+        Integer slot = slots.remove(shipwreck);
+        if (slot == null)
+        {
+            return;
+        }
+
+        addFootprint(origins[slot], -1);
+        int last = --originCount;
+        if (slot != last)
+        {
+            origins[slot] = origins[last];
+            shipwrecks[slot] = shipwrecks[last];
+            slots.put(shipwrecks[slot], slot);
+        }
+        shipwrecks[last] = null;
+    }
+
+    /**
+     * Adds {@code delta} to every in-scene tile of the salvage range of a
+     * shipwreck whose south-west tile is at the packed scene position, without
+     * recording the origin.
+     */
+    void addFootprint(int packedOrigin, int delta)
+    {
+        int originX = unpackX(packedOrigin);
+        int originY = unpackY(packedOrigin);
+        int planeOffset = unpackPlane(packedOrigin) * PLANE_SIZE;
+
+        int minX = Math.max(0, originX + RANGE_MIN_OFFSET);
+        int maxX = Math.min(SIZE - 1, originX + RANGE_MAX_OFFSET);
+        int minY = Math.max(0, originY + RANGE_MIN_OFFSET);
+        int maxY = Math.min(SIZE - 1, originY + RANGE_MAX_OFFSET);
+
+        for (int y = minY; y <= maxY; y++)
+        {
+            int row = planeOffset + y * SIZE;
+            for (int x = minX; x <= maxX; x++)
+            {
+                counts[row + x] += delta;
+            }
+        }
+    }
+
+    int count(int sceneX, int sceneY, int plane)
+    {
+        if (sceneX < 0 || sceneY < 0 || sceneX >= SIZE || sceneY >= SIZE || plane < 0 || plane >= Constants.MAX_Z)
+        {
+            return 0;
+        }
+        return counts[plane * PLANE_SIZE + sceneY * SIZE + sceneX];
+    }
+
+    /**
+     * Copy of the counts of one plane, indexed by {@code sceneY * SCENE_SIZE + sceneX}.
+     */
+    short[] copyPlane(int plane)
+    {
+        return Arrays.copyOfRange(counts, plane * PLANE_SIZE, (plane + 1) * PLANE_SIZE);
+    }
+
+    /**
+     * Packed origins of the added shipwrecks, valid up to {@link #getOriginCount()}.
+     */
+    int[] getOrigins()
+    {
+        return origins;
+    }
+
+    int getOriginCount()
+    {
+        return originCount;
+    }
+
+    void clear()
+    {
+        Arrays.fill(counts, (short) 0);
+        Arrays.fill(shipwrecks, 0, originCount, null);
+        slots.clear();
+        originCount = 0;
+    }
+}
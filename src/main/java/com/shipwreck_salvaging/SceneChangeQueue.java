@@ -0,0 +1,80 @@
+package com.shipwrecksalvaging;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.runelite.api.GameObject;
+import net.runelite.api.NPC;
+
+/**
+ * Wreck and pivot NPC spawns and despawns seen since the last batch was
+ * applied. Only the last change of each object is kept, so an object that
+ * spawns and despawns within one tick cancels out.
+ * <p>
+ * The version counts applied batches that changed the wreck set, and only
+ * ever goes up, so caches built from the wreck set can compare it to tell
+ * whether they are stale.
+ */
+final class SceneChangeQueue
+{
+    // True for a spawn, false for a despawn
+    private final Map<GameObject, Boolean> wrecks = new LinkedHashMap<>();
+    private final Map<NPC, Boolean> npcs = new LinkedHashMap<>();
+    private final Map<GameObject, Boolean> wrecksView = Collections.unmodifiableMap(wrecks);
+    private final Map<NPC, Boolean> npcsView = Collections.unmodifiableMap(npcs);
+    private int version;
+
+    void wreckSpawned(GameObject gameObject)
+    {
+        wrecks.put(gameObject, Boolean.TRUE);
+    }
+
+    void wreckDespawned(GameObject gameObject)
+    {
+        wrecks.put(gameObject, Boolean.FALSE);
+    }
+
+    void npcSpawned(NPC npc)
+    {
+        npcs.put(npc, Boolean.TRUE);
+    }
+
+    void npcDespawned(NPC npc)
+    {
+        npcs.put(npc, Boolean.FALSE);
+    }
+
+    boolean isEmpty()
+    {
+        return wrecks.isEmpty() && npcs.isEmpty();
+    }
+
+    Map<GameObject, Boolean> getWreckChanges()
+    {
+        return wrecksView;
+    }
+
+    Map<NPC, Boolean> getNpcChanges()
+    {
+        return npcsView;
+    }
+
+    void clear()
+    {
+        wrecks.clear();
+        npcs.clear();
+    }
+
+    /**
+     * Marks the wreck set as changed.
+     */
+    void advance()
+    {
+        version++;
+    }
+
+    int getVersion()
+    {
+        return version;
+    }
+}
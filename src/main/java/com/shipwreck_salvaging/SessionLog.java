@@ -0,0 +1,40 @@
+package com.shipwrecksalvaging;
+
+/**
+ * Binary format of a recorded salvaging session, shared by the recorder and
+ * the replayer.
+ * <p>
+ * A log starts with {@link #MAGIC} and {@link #VERSION}, followed by records
+ * that each start with a one-byte type. All values are big-endian as written
+ * by {@link java.io.DataOutputStream}; world coordinates are unsigned shorts.
+ * <ul>
+ * <li>{@link #OBJECT_SPAWN}, {@link #OBJECT_DESPAWN}: int id, short x, short y, byte plane</li>
+ * <li>{@link #NPC_SPAWN}: int id, short index, short x, short y, byte plane</li>
+ * <li>{@link #NPC_MOVE}: short index, short x, short y, byte plane, ahead of the tick it was seen on</li>
+ * <li>{@link #NPC_DESPAWN}: short index</li>
+ * <li>{@link #GAME_STATE}: UTF state name, short base x, short base y, byte plane</li>
+ * <li>{@link #GAME_TICK}: no payload</li>
+ * <li>{@link #FRAME}: int camera x, y, z, short pitch, yaw, scale, short viewport x, y, width,
+ * height, byte plane</li>
+ * <li>{@link #FRAME_UNCHANGED}: no payload, a frame with the same camera as the last one</li>
+ * </ul>
+ */
+final class SessionLog
+{
+    static final int MAGIC = 0x5357534C; // "SWSL"
+    static final int VERSION = 1;
+
+    static final int OBJECT_SPAWN = 1;
+    static final int OBJECT_DESPAWN = 2;
+    static final int NPC_SPAWN = 3;
+    static final int NPC_MOVE = 4;
+    static final int NPC_DESPAWN = 5;
+    static final int GAME_STATE = 6;
+    static final int GAME_TICK = 7;
+    static final int FRAME = 8;
+    static final int FRAME_UNCHANGED = 9;
+
+    private SessionLog()
+    {
+    }
+}
@@ -0,0 +1,275 @@
+package com.shipwrecksalvaging;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.NPC;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.RuneLite;
+
+/**
+ * Writes the events the plugin handles, and the camera of every frame, to a
+ * {@link SessionLog} file so that a session can be replayed offline.
+ * <p>
+ * Only called from the client thread. A write failure stops the recording
+ * rather than interrupting the plugin.
+ */
+@Slf4j
+final class SessionRecorder
+{
+    private static final File SESSION_DIR = new File(RuneLite.RUNELITE_DIR, "shipwreck-salvaging/sessions");
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private DataOutputStream out;
+    private File file;
+
+    // Last recorded position of each NPC, by index
+    private final Map<Integer, Integer> npcPositions = new HashMap<>();
+
+    // Camera of the last recorded frame
+    private final int[] camera = new int[11];
+    private final int[] lastCamera = new int[11];
+    private boolean hasFrame;
+
+    boolean isRecording()
+    {
+        return out != null;
+    }
+
+    void start()
+    {
+        start(new File(SESSION_DIR, LocalDateTime.now().format(FILE_NAME) + ".swsl"));
+    }
+
+    void start(File file)
+    {
+        if (out != null)
+        {
+            return;
+        }
+
+        this.file = file;
+        try
+        {
+            file.getParentFile().mkdirs();
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+            out.writeInt(SessionLog.MAGIC);
+            out.writeShort(SessionLog.VERSION);
+            npcPositions.clear();
+            hasFrame = false;
+            log.info("Recording salvaging session to {}", file);
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void stop()
+    {
+        if (out == null)
+        {
+            return;
+        }
+
+        try
+        {
+            out.close();
+            log.info("Recorded salvaging session to {}", file);
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to finish session recording {}", file, e);
+        }
+        out = null;
+    }
+
+    void objectSpawned(GameObject gameObject)
+    {
+        writeObject(SessionLog.OBJECT_SPAWN, gameObject);
+    }
+
+    void objectDespawned(GameObject gameObject)
+    {
+        writeObject(SessionLog.OBJECT_DESPAWN, gameObject);
+    }
+
+    void npcSpawned(NPC npc)
+    {
+        WorldPoint location = npc.getWorldLocation();
+        if (location == null)
+        {
+            // Without a location it cannot be replayed, nor its moves tracked
+            return;
+        }
+
+        try
+        {
+            out.writeByte(SessionLog.NPC_SPAWN);
+            out.writeInt(npc.getId());
+            out.writeShort(npc.getIndex());
+            writeLocation(location);
+            npcPositions.put(npc.getIndex(), pack(location));
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void npcDespawned(NPC npc)
+    {
+        try
+        {
+            out.writeByte(SessionLog.NPC_DESPAWN);
+            out.writeShort(npc.getIndex());
+            npcPositions.remove(npc.getIndex());
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void gameStateChanged(GameState gameState, WorldView worldView)
+    {
+        try
+        {
+            out.writeByte(SessionLog.GAME_STATE);
+            out.writeUTF(gameState.name());
+            out.writeShort(worldView.getBaseX());
+            out.writeShort(worldView.getBaseY());
+            out.writeByte(worldView.getPlane());
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records a game tick, after any tracked NPC that moved since it was last
+     * recorded, so the replay moves them before handling the tick as the
+     * plugin did.
+     */
+    void gameTick(Collection<NPC> npcs)
+    {
+        try
+        {
+            for (NPC npc : npcs)
+            {
+                WorldPoint location = npc.getWorldLocation();
+                Integer position = npcPositions.get(npc.getIndex());
+                if (location == null || position == null || position == pack(location))
+                {
+                    continue;
+                }
+
+                out.writeByte(SessionLog.NPC_MOVE);
+                out.writeShort(npc.getIndex());
+                writeLocation(location);
+                npcPositions.put(npc.getIndex(), pack(location));
+            }
+            out.writeByte(SessionLog.GAME_TICK);
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void frame(Client client)
+    {
+        camera[0] = client.getCameraX();
+        camera[1] = client.getCameraY();
+        camera[2] = client.getCameraZ();
+        camera[3] = client.getCameraPitch();
+        camera[4] = client.getCameraYaw();
+        camera[5] = client.getScale();
+        camera[6] = client.getViewportXOffset();
+        camera[7] = client.getViewportYOffset();
+        camera[8] = client.getViewportWidth();
+        camera[9] = client.getViewportHeight();
+        camera[10] = client.getTopLevelWorldView().getPlane();
+
+        try
+        {
+            if (hasFrame && Arrays.equals(camera, lastCamera))
+            {
+                out.writeByte(SessionLog.FRAME_UNCHANGED);
+                return;
+            }
+
+            out.writeByte(SessionLog.FRAME);
+            out.writeInt(camera[0]);
+            out.writeInt(camera[1]);
+            out.writeInt(camera[2]);
+            for (int i = 3; i < 10; i++)
+            {
+                out.writeShort(camera[i]);
+            }
+            out.writeByte(camera[10]);
+            System.arraycopy(camera, 0, lastCamera, 0, camera.length);
+            hasFrame = true;
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    private void writeObject(int type, GameObject gameObject)
+    {
+        try
+        {
+            out.writeByte(type);
+            out.writeInt(gameObject.getId());
+            writeLocation(gameObject.getWorldLocation());
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    private void writeLocation(WorldPoint location) throws IOException
+    {
+        out.writeShort(location.getX());
+        out.writeShort(location.getY());
+        out.writeByte(location.getPlane());
+    }
+
+    private static int pack(WorldPoint location)
+    {
+        return location.getPlane() << 30 | location.getY() << 15 | location.getX();
+    }
+
+    private void fail(IOException e)
+    {
+        log.warn("Session recording to {} failed, stopping it", file, e);
+        if (out != null)
+        {
+            try
+            {
+                out.close();
+            }
+            catch (IOException ignored)
+            {
+            }
+            out = null;
+        }
+    }
+}
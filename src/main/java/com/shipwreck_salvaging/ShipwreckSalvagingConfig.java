@@ -7,10 +7,13 @@ import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.ConfigSection;
 import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
-@ConfigGroup("shipwrecksalvaging")
+@ConfigGroup(ShipwreckSalvagingConfig.GROUP)
 public interface ShipwreckSalvagingConfig extends Config
 {
+    String GROUP = "shipwrecksalvaging";
+
     // Salvage Range Section - Position 0
     @ConfigSection(
             name = "Salvage Range",
@@ -82,6 +85,30 @@ public interface ShipwreckSalvagingConfig extends Config
         return 50;
     }
 
+    @ConfigItem(
+            keyName = "mergeOutlines",
+            name = "Merge Outlines",
+            description = "Draws one outline around each group of connected salvage ranges instead of a border per range",
+            section = salvageRangeSection,
+            position = 5
+    )
+    default boolean mergeOutlines()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+            keyName = "cacheRangeLayer",
+            name = "Cache When Camera Is Still",
+            description = "Reuses the last drawn salvage range layer while the camera, wrecks and settings are unchanged",
+            section = salvageRangeSection,
+            position = 6
+    )
+    default boolean cacheRangeLayer()
+    {
+        return false;
+    }
+
     // Salvage Overlap Section - Position 1
     @ConfigSection(
             name = "Salvage Overlap",
@@ -127,6 +154,55 @@ public interface ShipwreckSalvagingConfig extends Config
         return new Color(0, 255, 0, 255);
     }
 
+    @ConfigItem(
+            keyName = "overlapHeatmap",
+            name = "Overlap Heatmap",
+            description = "Colors each tile by how many salvage ranges cover it, from the fill color to the peak color",
+            section = salvageOverlapSection,
+            position = 3
+    )
+    default boolean overlapHeatmap()
+    {
+        return false;
+    }
+
+    @Alpha
+    @ConfigItem(
+            keyName = "heatmapPeakColor",
+            name = "Heatmap Peak Color",
+            description = "Color of tiles covered by the most salvage ranges in the heatmap",
+            section = salvageOverlapSection,
+            position = 4
+    )
+    default Color heatmapPeakColor()
+    {
+        return new Color(255, 0, 0, 120);
+    }
+
+    @ConfigItem(
+            keyName = "showBestPosition",
+            name = "Show Best Position",
+            description = "Marks the tile in range of the most salvageable shipwrecks, nearest to your boat",
+            section = salvageOverlapSection,
+            position = 5
+    )
+    default boolean showBestPosition()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+            keyName = "bestPositionColor",
+            name = "Best Position Color",
+            description = "Color of the best position marker",
+            section = salvageOverlapSection,
+            position = 6
+    )
+    default Color bestPositionColor()
+    {
+        return new Color(0, 255, 255, 255);
+    }
+
     // Depleted Shipwreck Section - Position 2
     @ConfigSection(
             name = "Depleted Shipwreck",
@@ -191,7 +267,43 @@ public interface ShipwreckSalvagingConfig extends Config
         return new Color(255, 255, 0, 255); // Yellow by default
     }
 
-    // Toggle Shipwrecks Section - Position 4 (Last)
+    @ConfigItem(
+            keyName = "showHullCoverage",
+            name = "Show Hull Coverage",
+            description = "Marks each shipwreck green, yellow or red for whether the boat hull is fully, partly or not in its range",
+            section = npcMarkerSection,
+            position = 2
+    )
+    default boolean showHullCoverage()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+            keyName = "showRangePath",
+            name = "Show Path To Range",
+            description = "Draws the shortest route over open water from your boat to the nearest tile in salvage range",
+            section = npcMarkerSection,
+            position = 3
+    )
+    default boolean showRangePath()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+            keyName = "rangePathColor",
+            name = "Path Color",
+            description = "Color of the path to the salvage range",
+            section = npcMarkerSection,
+            position = 4
+    )
+    default Color rangePathColor()
+    {
+        return new Color(255, 128, 0, 255);
+    }
+
+    // Toggle Shipwrecks Section - Position 4
     @ConfigSection(
             name = "Toggle Shipwrecks",
             description = "Enable or disable specific shipwreck types",
@@ -295,4 +407,107 @@ public interface ShipwreckSalvagingConfig extends Config
     {
         return true;
     }
-}
\ No newline at end of file
+
+    // Known Shipwrecks Section - Position 5
+    @ConfigSection(
+            name = "Known Shipwrecks",
+            description = "Settings for the shipwrecks remembered across sessions",
+            position = 5
+    )
+    String knownShipwrecksSection = "knownShipwrecks";
+
+    @ConfigItem(
+            keyName = "rememberShipwrecks",
+            name = "Remember Shipwrecks",
+            description = "Keeps every shipwreck seen, with its state and when it was last seen, in .runelite/shipwreck-salvaging/wrecks.dat",
+            section = knownShipwrecksSection,
+            position = 0
+    )
+    default boolean rememberShipwrecks()
+    {
+        return true;
+    }
+
+    @ConfigItem(
+            keyName = "showOnWorldMap",
+            name = "Show On World Map",
+            description = "Marks the known shipwrecks on the world map, colored by type, as a dot while salvageable and a ring once depleted",
+            section = knownShipwrecksSection,
+            position = 1
+    )
+    default boolean showOnWorldMap()
+    {
+        return true;
+    }
+
+    @ConfigItem(
+            keyName = "showOnMinimap",
+            name = "Show On Minimap",
+            description = "Marks the shipwrecks around you on the minimap, like on the world map",
+            section = knownShipwrecksSection,
+            position = 2
+    )
+    default boolean showOnMinimap()
+    {
+        return true;
+    }
+
+    // Performance Section - Position 6 (Last)
+    @ConfigSection(
+            name = "Performance",
+            description = "Settings for the frame time of the overlay",
+            position = 6,
+            closedByDefault = true
+    )
+    String performanceSection = "performance";
+
+    @ConfigItem(
+            keyName = "adaptiveDetail",
+            name = "Adaptive Detail",
+            description = "Draws the salvage range in less detail when it takes longer than the render budget or tiles are tiny on screen",
+            section = performanceSection,
+            position = 0
+    )
+    default boolean adaptiveDetail()
+    {
+        return false;
+    }
+
+    @Range(min = 1, max = 16)
+    @Units(Units.MILLISECONDS)
+    @ConfigItem(
+            keyName = "renderBudget",
+            name = "Render Budget",
+            description = "Time per frame the salvage range may take before Adaptive Detail reduces it",
+            section = performanceSection,
+            position = 1
+    )
+    default int renderBudget()
+    {
+        return 2;
+    }
+
+    @ConfigItem(
+            keyName = "recordSession",
+            name = "Record Session",
+            description = "Records shipwreck, NPC and camera events to .runelite/shipwreck-salvaging/sessions for offline replay",
+            section = performanceSection,
+            position = 2
+    )
+    default boolean recordSession()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+            keyName = "showMetrics",
+            name = "Show Metrics",
+            description = "Shows a panel with the render time, projected corners and draw calls of the overlay",
+            section = performanceSection,
+            position = 3
+    )
+    default boolean showMetrics()
+    {
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package com.shipwrecksalvaging;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LayoutableRenderableEntity;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+/**
+ * Debug panel with the rolling cost of {@link ShipwreckSalvagingOverlay}.
+ * <p>
+ * The lines are only rebuilt a few times a second and reused in between, so
+ * the panel adds little work of its own to the frames it measures.
+ */
+@Singleton
+public class ShipwreckSalvagingMetricsOverlay extends OverlayPanel
+{
+    private static final long REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final ShipwreckSalvagingPlugin plugin;
+    private long lastRefresh;
+
+    @Inject
+    private ShipwreckSalvagingMetricsOverlay(ShipwreckSalvagingPlugin plugin)
+    {
+        super(plugin);
+        this.plugin = plugin;
+        setPosition(OverlayPosition.TOP_LEFT);
+        setClearChildren(false);
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        if (!plugin.getRenderConfig().isShowMetrics())
+        {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        List<LayoutableRenderableEntity> children = panelComponent.getChildren();
+        if (children.isEmpty() || now - lastRefresh >= REFRESH_NANOS)
+        {
+            lastRefresh = now;
+            children.clear();
+            addLines(children);
+        }
+        return super.render(graphics);
+    }
+
+    private void addLines(List<LayoutableRenderableEntity> children)
+    {
+        RenderMetrics metrics = plugin.getRenderMetrics();
+        children.add(TitleComponent.builder()
+                .text("Shipwreck Salvaging")
+                .build());
+        children.add(line("Render p50", String.format("%.1f us", metrics.getRenderNanos(0.5) / 1000.0)));
+        children.add(line("Render p99", String.format("%.1f us", metrics.getRenderNanos(0.99) / 1000.0)));
+        children.add(line("Corners/frame", String.format("%.0f", metrics.getAverageProjectedCorners())));
+        children.add(line("Draw calls/frame", String.format("%.1f", metrics.getAverageDrawCalls())));
+        children.add(line("Wrecks", Integer.toString(plugin.getActiveShipwrecks().size())));
+        children.add(line("Pivot NPCs", Integer.toString(plugin.getTrackedNpcs().size())));
+        children.add(line("Layer cache hits", Long.toString(metrics.getLayerCacheHits())));
+        children.add(line("Layer cache misses", Long.toString(metrics.getLayerCacheMisses())));
+        children.add(line("Geometry builds", Integer.toString(plugin.getGeometryBuildCount())));
+    }
+
+    private static LineComponent line(String left, String right)
+    {
+        return LineComponent.builder()
+                .left(left)
+                .right(right)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.shipwrecksalvaging;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.Perspective;
+import net.runelite.api.Point;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayLayer;
+import net.runelite.client.ui.overlay.OverlayPosition;
+
+/**
+ * Shipwrecks of the current scene on the minimap, with the same icons as the
+ * world map. The minimap never reaches past the loaded scene, so the wrecks
+ * tracked there are all it can show.
+ */
+@Singleton
+public class ShipwreckSalvagingMinimapOverlay extends Overlay
+{
+    private static final int ICON_SIZE = 7;
+
+    private final Client client;
+    private final ShipwreckSalvagingPlugin plugin;
+    private final WreckSprites sprites = new WreckSprites(ICON_SIZE);
+    private int drawn;
+
+    @Inject
+    private ShipwreckSalvagingMinimapOverlay(Client client, ShipwreckSalvagingPlugin plugin)
+    {
+        this.client = client;
+        this.plugin = plugin;
+        setPosition(OverlayPosition.DYNAMIC);
+        setLayer(OverlayLayer.ABOVE_WIDGETS);
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        final RenderConfig renderConfig = plugin.getRenderConfig();
+        drawn = 0;
+        if (!renderConfig.isShowOnMinimap())
+        {
+            return null;
+        }
+
+        int enabledTypes = renderConfig.getEnabledTypes();
+        for (GameObject shipwreck : plugin.getActiveShipwrecks())
+        {
+            ShipwreckType type = ShipwreckType.forObjectId(shipwreck.getId());
+            if ((enabledTypes & type.mask()) == 0)
+            {
+                continue;
+            }
+
+            LocalPoint localPoint = shipwreck.getLocalLocation();
+            Point point = localPoint == null ? null : Perspective.localToMinimap(client, localPoint);
+            if (point == null)
+            {
+                continue;
+            }
+
+            graphics.drawImage(sprites.get(type, ShipwreckType.isDepleted(shipwreck.getId())),
+                    point.getX() - ICON_SIZE / 2, point.getY() - ICON_SIZE / 2, null);
+            drawn++;
+        }
+        return null;
+    }
+
+    /**
+     * Number of wreck icons drawn in the last frame.
+     */
+    int getDrawnCount()
+    {
+        return drawn;
+    }
+}
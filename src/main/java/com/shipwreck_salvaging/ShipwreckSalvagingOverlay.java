@@ -1,42 +1,51 @@
 package com.shipwrecksalvaging;
 
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
-import java.awt.Polygon;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Client;
-import net.runelite.api.GameObject;
-import net.runelite.api.NPC;
-import net.runelite.api.Perspective;
-import net.runelite.api.coords.LocalPoint;
-import net.runelite.api.coords.WorldPoint;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
-import net.runelite.client.ui.overlay.OverlayUtil;
 
 @Singleton
 public class ShipwreckSalvagingOverlay extends Overlay
 {
-    private static final int SALVAGE_RANGE = 7;
-    private static final double SALVAGE_RANGE_NORTH_EXTRA = 0.5; // Extra half tile on north
-    private static final double SALVAGE_RANGE_EAST_EXTRA = 0.5; // Extra half tile on east
-    private static final int SHIPWRECK_SIZE = 2;
     private static final int DOT_SIZE = 8; // Size of the dot in pixels
+    private static final int HULL_DOT_SIZE = 12;
 
     private final Client client;
     private final ShipwreckSalvagingPlugin plugin;
-    private final ShipwreckSalvagingConfig config;
+
+    private final ProjectionLattice lattice = new ProjectionLattice();
+    private final RangeLayerCache layerCache = new RangeLayerCache();
+    private final DetailController detailController = new DetailController();
+    // Fill and draw calls issued in the current frame
+    private int drawCalls;
+    private final Path2D.Float rangeFill = new Path2D.Float();
+    private final Path2D.Float overlapFill = new Path2D.Float();
+    private final Path2D.Float rangeBorder = new Path2D.Float();
+    private final Path2D.Float overlapBorder = new Path2D.Float();
+    private final Path2D.Float highlightFill = new Path2D.Float();
+    // Heatmap fill per coverage depth, index 0 unused
+    private final Path2D.Float[] heatmapFills = new Path2D.Float[RenderConfig.HEATMAP_MAX_DEPTH + 1];
+    private final Path2D.Float bestPositionFill = new Path2D.Float();
+    private final Path2D.Float bestPositionCross = new Path2D.Float();
+    private final Path2D.Float rangePathLine = new Path2D.Float();
 
     @Inject
-    private ShipwreckSalvagingOverlay(Client client, ShipwreckSalvagingPlugin plugin, ShipwreckSalvagingConfig config)
+    private ShipwreckSalvagingOverlay(Client client, ShipwreckSalvagingPlugin plugin)
     {
         this.client = client;
         this.plugin = plugin;
-        this.config = config;
+        for (int depth = 1; depth < heatmapFills.length; depth++)
+        {
+            heatmapFills[depth] = new Path2D.Float();
+        }
         setPosition(OverlayPosition.DYNAMIC);
         setLayer(OverlayLayer.ABOVE_SCENE);
     }
@@ -44,352 +53,495 @@ public class ShipwreckSalvagingOverlay extends Overlay
     @Override
     public Dimension render(Graphics2D graphics)
     {
-        // Force re-check for NPCs periodically to prevent disappearing markers
-        if (plugin.getTrackedNpcs().isEmpty() && client.getGameState() == net.runelite.api.GameState.LOGGED_IN)
+        final RenderConfig renderConfig = plugin.getRenderConfig();
+        final long start = System.nanoTime();
+        drawCalls = 0;
+        int projectedCorners = 0;
+
+        if (plugin.getSessionRecorder().isRecording())
         {
-            for (NPC npc : client.getNpcs())
-            {
-                if (npc.getId() == 15186 || npc.getId() == 15187 || npc.getId() == 15188 ||
-                        npc.getId() == 15189 || npc.getId() == 15190)
-                {
-                    plugin.getTrackedNpcs().add(npc);
-                }
-            }
+            plugin.getSessionRecorder().frame(client);
         }
 
-        // First, calculate which tiles are in overlap zones
-        java.util.Map<WorldPoint, Integer> tileOverlapCount = new java.util.HashMap<>();
+        final SalvageRangeGeometry geometry = plugin.getRangeGeometry();
 
-        for (GameObject shipwreck : plugin.getActiveShipwrecks())
+        if (renderConfig.isCacheRangeLayer())
         {
-            if (!plugin.isShipwreckEnabled(shipwreck))
-            {
-                continue;
-            }
-
-            if (plugin.isShipwreckDepleted(shipwreck))
-            {
-                continue;
-            }
-
-            if (!config.showSalvageRange())
-            {
-                continue;
-            }
-
-            WorldPoint shipwreckLocation = shipwreck.getWorldLocation();
-            int minX = shipwreckLocation.getX() - SALVAGE_RANGE;
-            int maxX = shipwreckLocation.getX() + SHIPWRECK_SIZE - 1 + SALVAGE_RANGE + 1; // +1 for the extra half tile on east
-            int minY = shipwreckLocation.getY() - SALVAGE_RANGE;
-            int maxY = shipwreckLocation.getY() + SHIPWRECK_SIZE - 1 + SALVAGE_RANGE + 1; // +1 for the extra half tile on north
-            int plane = shipwreckLocation.getPlane();
-
-            for (int x = minX; x <= maxX; x++)
+            // Only re-project and redraw the layer when the camera or the geometry changed
+            boolean cacheHit = layerCache.update(client, geometry.getBuildCount(), renderConfig);
+            if (!cacheHit)
             {
-                for (int y = minY; y <= maxY; y++)
+                Graphics2D layerGraphics = layerCache.begin(graphics);
+                if (layerGraphics != null)
                 {
-                    WorldPoint tilePoint = new WorldPoint(x, y, plane);
-                    tileOverlapCount.put(tilePoint, tileOverlapCount.getOrDefault(tilePoint, 0) + 1);
+                    renderRangeLayer(layerGraphics, renderConfig, geometry);
+                    layerCache.end(layerGraphics);
+                    projectedCorners = lattice.getProjectedCorners();
                 }
             }
-        }
-
-        // Render the shipwrecks
-        for (GameObject shipwreck : plugin.getActiveShipwrecks())
-        {
-            if (!plugin.isShipwreckEnabled(shipwreck))
+            layerCache.draw(graphics);
+            drawCalls++;
+            if (renderConfig.isShowMetrics())
             {
-                continue;
+                plugin.getRenderMetrics().recordLayerCache(cacheHit);
             }
+        }
+        else
+        {
+            layerCache.invalidate();
+            renderRangeLayer(graphics, renderConfig, geometry);
+            projectedCorners = lattice.getProjectedCorners();
+        }
 
-            WorldPoint shipwreckLocation = shipwreck.getWorldLocation();
-            boolean isDepleted = plugin.isShipwreckDepleted(shipwreck);
+        if (renderConfig.isShowBestPosition() && plugin.getBestPosition().project(client))
+        {
+            renderBestPosition(graphics, renderConfig);
+            projectedCorners += 4;
+        }
 
-            if (isDepleted && config.highlightShipwreck())
-            {
-                renderShipwreckHighlight(graphics, shipwreck);
-            }
+        if (renderConfig.isShowRangePath())
+        {
+            renderRangePath(graphics, renderConfig);
+            projectedCorners += plugin.getRangePath().getCount();
+        }
 
-            if (!isDepleted && config.showSalvageRange())
-            {
-                renderSalvageRange(graphics, shipwreckLocation, tileOverlapCount);
-            }
+        if (renderConfig.isShowHullCoverage())
+        {
+            renderHullCoverage(graphics, renderConfig);
+            projectedCorners += plugin.getHullCoverage().getCount();
         }
 
-        // Render NPC tile markers
-        for (NPC npc : plugin.getTrackedNpcs())
+        if (renderConfig.isShowNpcMarker())
         {
-            if (config.showNpcMarker())
-            {
-                renderNpcTileMarker(graphics, npc);
-            }
+            renderNpcMarkers(graphics, renderConfig);
+            projectedCorners += plugin.getNpcMarkers().getProjectedCorners();
         }
 
+        if (renderConfig.isShowMetrics())
+        {
+            plugin.getRenderMetrics().record(System.nanoTime() - start, projectedCorners, drawCalls);
+        }
         return null;
     }
 
-    private void renderShipwreckHighlight(Graphics2D graphics, GameObject shipwreck)
+    private void renderRangeLayer(Graphics2D graphics, RenderConfig renderConfig, SalvageRangeGeometry geometry)
     {
-        Color color = config.shipwreckColor();
-        LocalPoint localPoint = shipwreck.getLocalLocation();
-        if (localPoint != null)
+        long start = System.nanoTime();
+        lattice.projectBlocks(client, geometry);
+
+        DetailLevel level = DetailLevel.FULL;
+        if (renderConfig.isAdaptiveDetail())
         {
-            Polygon polygon = Perspective.getCanvasTileAreaPoly(client, localPoint, SHIPWRECK_SIZE);
-            if (polygon != null)
-            {
-                graphics.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 50));
-                graphics.fillPolygon(polygon);
-                graphics.setColor(color);
-                graphics.setStroke(new BasicStroke(2));
-                graphics.drawPolygon(polygon);
-            }
+            level = detailController.choose(renderConfig.getRenderBudgetNanos(), lattice.getTilePixels());
         }
-    }
 
-    private void renderSalvageRange(Graphics2D graphics, WorldPoint shipwreckLocation, java.util.Map<WorldPoint, Integer> tileOverlapCount)
-    {
-        // Calculate the range boundaries with extra half tile on north and east
-        int minX = shipwreckLocation.getX() - SALVAGE_RANGE;
-        int maxX = shipwreckLocation.getX() + SHIPWRECK_SIZE - 1 + SALVAGE_RANGE + 1; // +1 for the extra half tile on east
-        int minY = shipwreckLocation.getY() - SALVAGE_RANGE;
-        int maxY = shipwreckLocation.getY() + SHIPWRECK_SIZE - 1 + SALVAGE_RANGE + 1; // +1 for the extra half tile on north
-
-        int plane = shipwreckLocation.getPlane();
-
-        Color fillColor = new Color(
-                config.tileFillColor().getRed(),
-                config.tileFillColor().getGreen(),
-                config.tileFillColor().getBlue(),
-                config.fillOpacity()
-        );
-        Color borderColor = config.tileBorderColor();
-        int borderWidth = config.tileBorderWidth();
-
-        Color overlapFillColor = new Color(
-                config.overlapFillColor().getRed(),
-                config.overlapFillColor().getGreen(),
-                config.overlapFillColor().getBlue(),
-                config.overlapFillColor().getAlpha()
-        );
-        Color overlapBorderColor = config.overlapBorderColor();
-
-        for (int x = minX; x <= maxX; x++)
+        boolean showSalvageRange = renderConfig.isShowSalvageRange();
+        lattice.projectCorners(client, geometry, level, showSalvageRange && renderConfig.isMergeOutlines());
+
+        if (showSalvageRange)
         {
-            for (int y = minY; y <= maxY; y++)
+            switch (level)
             {
-                WorldPoint tilePoint = new WorldPoint(x, y, plane);
-
-                boolean isOverlap = config.showOverlap() && tileOverlapCount.getOrDefault(tilePoint, 0) > 1;
-
-                boolean isWestEdge = (x == minX);
-                boolean isEastEdge = (x == maxX);
-                boolean isSouthEdge = (y == minY);
-                boolean isNorthEdge = (y == maxY);
+                case FULL:
+                    renderSalvageRange(graphics, renderConfig, geometry);
+                    break;
+                case MERGED:
+                    renderMergedRange(graphics, renderConfig, geometry, true);
+                    break;
+                case OUTLINE:
+                    renderMergedRange(graphics, renderConfig, geometry, false);
+                    break;
+                case MARKERS:
+                    renderRangeMarkers(graphics, renderConfig, geometry);
+                    break;
+            }
+        }
 
-                Color tileFill = isOverlap ? overlapFillColor : fillColor;
-                Color tileBorder = isOverlap ? overlapBorderColor : borderColor;
+        if (geometry.getHighlightCount() > 0)
+        {
+            renderShipwreckHighlights(graphics, renderConfig, geometry);
+        }
 
-                renderTileWithSelectiveBorder(graphics, tilePoint, tileFill, tileBorder, borderWidth,
-                        isWestEdge, isEastEdge, isSouthEdge, isNorthEdge);
-            }
+        if (renderConfig.isAdaptiveDetail())
+        {
+            detailController.record(System.nanoTime() - start);
+        }
+        else
+        {
+            detailController.reset();
         }
     }
 
-    private void renderTileWithSelectiveBorder(Graphics2D graphics, WorldPoint worldPoint,
-                                               Color fillColor, Color borderColor, int borderWidth,
-                                               boolean drawWest, boolean drawEast, boolean drawSouth, boolean drawNorth)
+    private void renderShipwreckHighlights(Graphics2D graphics, RenderConfig renderConfig, SalvageRangeGeometry geometry)
     {
-        LocalPoint localPoint = LocalPoint.fromWorld(client, worldPoint);
-        if (localPoint == null)
+        highlightFill.reset();
+        for (int highlight = 0; highlight < geometry.getHighlightCount(); highlight++)
         {
-            return;
+            appendQuad(highlightFill,
+                    geometry.getHighlightCorner(highlight, SalvageRangeGeometry.SW),
+                    geometry.getHighlightCorner(highlight, SalvageRangeGeometry.SE),
+                    geometry.getHighlightCorner(highlight, SalvageRangeGeometry.NE),
+                    geometry.getHighlightCorner(highlight, SalvageRangeGeometry.NW));
         }
 
-        Polygon tilePoly = Perspective.getCanvasTilePoly(client, localPoint);
-        if (tilePoly == null)
+        graphics.setColor(renderConfig.getShipwreckFillColor());
+        fill(graphics, highlightFill);
+        graphics.setColor(renderConfig.getShipwreckColor());
+        graphics.setStroke(renderConfig.getShipwreckStroke());
+        draw(graphics, highlightFill);
+    }
+
+    /**
+     * Gathers every tile fill and border of the range overlay into one path per
+     * style, so the whole range costs two fills and two draws however many
+     * tiles and wrecks there are. The heatmap takes one fill per coverage depth
+     * present instead, each tile picking its path by its depth.
+     */
+    private void renderSalvageRange(Graphics2D graphics, RenderConfig renderConfig, SalvageRangeGeometry geometry)
+    {
+        boolean mergeOutlines = renderConfig.isMergeOutlines();
+        boolean heatmap = renderConfig.isOverlapHeatmap();
+
+        rangeFill.reset();
+        overlapFill.reset();
+        rangeBorder.reset();
+        overlapBorder.reset();
+        if (heatmap)
         {
-            return;
+            for (int depth = 1; depth < heatmapFills.length; depth++)
+            {
+                heatmapFills[depth].reset();
+            }
         }
 
-        graphics.setColor(fillColor);
-        graphics.fillPolygon(tilePoly);
+        for (int block = 0; block < geometry.getBlockCount(); block++)
+        {
+            if (!lattice.isBlockVisible(block))
+            {
+                continue;
+            }
 
-        graphics.setColor(borderColor);
-        graphics.setStroke(new BasicStroke(borderWidth));
+            for (int tile = geometry.getBlockTileStart(block); tile < geometry.getBlockTileEnd(block); tile++)
+            {
+                boolean isOverlap = geometry.isTileOverlap(tile);
+                int sw = geometry.getTileCorner(tile, SalvageRangeGeometry.SW);
+                int se = geometry.getTileCorner(tile, SalvageRangeGeometry.SE);
+                int ne = geometry.getTileCorner(tile, SalvageRangeGeometry.NE);
+                int nw = geometry.getTileCorner(tile, SalvageRangeGeometry.NW);
+
+                Path2D.Float fillPath = heatmap ? heatmapFills[geometry.getTileDepth(tile)]
+                        : isOverlap ? overlapFill : rangeFill;
+                if (!appendQuad(fillPath, sw, se, ne, nw) || mergeOutlines)
+                {
+                    continue;
+                }
 
-        if (drawSouth)
-        {
-            graphics.drawLine(tilePoly.xpoints[0], tilePoly.ypoints[0],
-                    tilePoly.xpoints[1], tilePoly.ypoints[1]);
+                int edges = geometry.getTileEdges(tile);
+                Path2D.Float border = isOverlap ? overlapBorder : rangeBorder;
+                if ((edges & SalvageRangeGeometry.EDGE_SOUTH) != 0)
+                {
+                    appendSegment(border, sw, se);
+                }
+                if ((edges & SalvageRangeGeometry.EDGE_EAST) != 0)
+                {
+                    appendSegment(border, se, ne);
+                }
+                if ((edges & SalvageRangeGeometry.EDGE_NORTH) != 0)
+                {
+                    appendSegment(border, ne, nw);
+                }
+                if ((edges & SalvageRangeGeometry.EDGE_WEST) != 0)
+                {
+                    appendSegment(border, nw, sw);
+                }
+            }
         }
-        if (drawEast)
+
+        if (mergeOutlines)
         {
-            graphics.drawLine(tilePoly.xpoints[1], tilePoly.ypoints[1],
-                    tilePoly.xpoints[2], tilePoly.ypoints[2]);
+            RangeOutlines outlines = geometry.getOutlines();
+            for (int outline = 0; outline < outlines.getOutlineCount(); outline++)
+            {
+                appendOutline(outlines.getOutlineKind(outline) == RangeOutlines.OVERLAP ? overlapBorder : rangeBorder,
+                        outlines, outline);
+            }
         }
-        if (drawNorth)
+
+        if (heatmap)
         {
-            graphics.drawLine(tilePoly.xpoints[2], tilePoly.ypoints[2],
-                    tilePoly.xpoints[3], tilePoly.ypoints[3]);
+            for (int depth = 1; depth < heatmapFills.length; depth++)
+            {
+                if (heatmapFills[depth].getCurrentPoint() != null)
+                {
+                    graphics.setColor(renderConfig.getHeatmapColor(depth));
+                    fill(graphics, heatmapFills[depth]);
+                }
+            }
         }
-        if (drawWest)
+        else
         {
-            graphics.drawLine(tilePoly.xpoints[3], tilePoly.ypoints[3],
-                    tilePoly.xpoints[0], tilePoly.ypoints[0]);
+            graphics.setColor(renderConfig.getFillColor());
+            fill(graphics, rangeFill);
+            graphics.setColor(renderConfig.getOverlapFillColor());
+            fill(graphics, overlapFill);
         }
+
+        graphics.setStroke(renderConfig.getBorderStroke());
+        graphics.setColor(renderConfig.getBorderColor());
+        draw(graphics, rangeBorder);
+        graphics.setColor(renderConfig.getOverlapBorderColor());
+        draw(graphics, overlapBorder);
     }
 
-    private void renderHalfTileWithSelectiveBorder(Graphics2D graphics, WorldPoint worldPoint,
-                                                   Color fillColor, Color borderColor, int borderWidth,
-                                                   boolean drawWest, boolean drawEast, boolean drawSouth, boolean drawNorth,
-                                                   boolean isEastHalf, boolean isNorthHalf)
+    /**
+     * Draws the range from its merged outlines alone, optionally filling each
+     * region. Range loops and overlap loops go into the same even-odd path, so
+     * the range fill leaves out the overlap regions, which get their own fill.
+     */
+    private void renderMergedRange(Graphics2D graphics, RenderConfig renderConfig, SalvageRangeGeometry geometry,
+                                   boolean fill)
     {
-        LocalPoint localPoint = LocalPoint.fromWorld(client, worldPoint);
-        if (localPoint == null)
+        rangeFill.reset();
+        overlapFill.reset();
+        rangeBorder.reset();
+        overlapBorder.reset();
+        rangeFill.setWindingRule(Path2D.WIND_EVEN_ODD);
+        overlapFill.setWindingRule(Path2D.WIND_EVEN_ODD);
+
+        RangeOutlines outlines = geometry.getOutlines();
+        for (int outline = 0; outline < outlines.getOutlineCount(); outline++)
         {
-            return;
+            boolean isOverlap = outlines.getOutlineKind(outline) == RangeOutlines.OVERLAP;
+            if (appendOutline(isOverlap ? overlapBorder : rangeBorder, outlines, outline) && fill)
+            {
+                appendOutline(rangeFill, outlines, outline);
+                if (isOverlap)
+                {
+                    appendOutline(overlapFill, outlines, outline);
+                }
+            }
         }
 
-        Polygon tilePoly = Perspective.getCanvasTilePoly(client, localPoint);
-        if (tilePoly == null)
+        if (fill)
         {
-            return;
+            graphics.setColor(renderConfig.getFillColor());
+            fill(graphics, rangeFill);
+            graphics.setColor(renderConfig.getOverlapFillColor());
+            fill(graphics, overlapFill);
         }
+        rangeFill.setWindingRule(Path2D.WIND_NON_ZERO);
+        overlapFill.setWindingRule(Path2D.WIND_NON_ZERO);
+
+        graphics.setStroke(renderConfig.getBorderStroke());
+        graphics.setColor(renderConfig.getBorderColor());
+        draw(graphics, rangeBorder);
+        graphics.setColor(renderConfig.getOverlapBorderColor());
+        draw(graphics, overlapBorder);
+    }
 
-        // Create a polygon for half the tile
-        Polygon halfPoly = new Polygon();
-
-        if (isEastHalf && isNorthHalf)
-        {
-            // Northeast corner - show only northeast quarter
-            int midX = (tilePoly.xpoints[1] + tilePoly.xpoints[3]) / 2;
-            int midY = (tilePoly.ypoints[1] + tilePoly.ypoints[3]) / 2;
-            halfPoly.addPoint(midX, midY); // Center
-            halfPoly.addPoint(tilePoly.xpoints[2], tilePoly.ypoints[2]); // NE corner
-            halfPoly.addPoint((tilePoly.xpoints[2] + tilePoly.xpoints[3]) / 2, (tilePoly.ypoints[2] + tilePoly.ypoints[3]) / 2); // North mid
-        }
-        else if (isEastHalf)
+    private void renderRangeMarkers(Graphics2D graphics, RenderConfig renderConfig, SalvageRangeGeometry geometry)
+    {
+        graphics.setColor(renderConfig.getBorderColor());
+        for (int marker = 0; marker < geometry.getMarkerCount(); marker++)
         {
-            // East half-tile
-            halfPoly.addPoint((tilePoly.xpoints[0] + tilePoly.xpoints[1]) / 2, (tilePoly.ypoints[0] + tilePoly.ypoints[1]) / 2); // South mid
-            halfPoly.addPoint(tilePoly.xpoints[1], tilePoly.ypoints[1]); // SE
-            halfPoly.addPoint(tilePoly.xpoints[2], tilePoly.ypoints[2]); // NE
-            halfPoly.addPoint((tilePoly.xpoints[2] + tilePoly.xpoints[3]) / 2, (tilePoly.ypoints[2] + tilePoly.ypoints[3]) / 2); // North mid
+            int corner = geometry.getMarkerCorner(marker);
+            if (lattice.isVisible(corner))
+            {
+                drawCalls++;
+                graphics.fillOval(lattice.getX(corner) - DOT_SIZE / 2, lattice.getY(corner) - DOT_SIZE / 2,
+                        DOT_SIZE, DOT_SIZE);
+            }
         }
-        else if (isNorthHalf)
+    }
+
+    /**
+     * Appends the projected quad with corners in south-west, south-east,
+     * north-east, north-west order.
+     *
+     * @return false if any corner is behind the camera
+     */
+    private boolean appendQuad(Path2D.Float path, int sw, int se, int ne, int nw)
+    {
+        if (!lattice.isVisible(sw) || !lattice.isVisible(se) || !lattice.isVisible(ne) || !lattice.isVisible(nw))
         {
-            // North half-tile
-            halfPoly.addPoint((tilePoly.xpoints[0] + tilePoly.xpoints[3]) / 2, (tilePoly.ypoints[0] + tilePoly.ypoints[3]) / 2); // West mid
-            halfPoly.addPoint((tilePoly.xpoints[1] + tilePoly.xpoints[2]) / 2, (tilePoly.ypoints[1] + tilePoly.ypoints[2]) / 2); // East mid
-            halfPoly.addPoint(tilePoly.xpoints[2], tilePoly.ypoints[2]); // NE
-            halfPoly.addPoint(tilePoly.xpoints[3], tilePoly.ypoints[3]); // NW
+            return false;
         }
 
-        // Draw fill
-        graphics.setColor(fillColor);
-        graphics.fillPolygon(halfPoly);
+        path.moveTo(lattice.getX(sw), lattice.getY(sw));
+        path.lineTo(lattice.getX(se), lattice.getY(se));
+        path.lineTo(lattice.getX(ne), lattice.getY(ne));
+        path.lineTo(lattice.getX(nw), lattice.getY(nw));
+        path.closePath();
+        return true;
+    }
 
-        // Draw borders
-        graphics.setColor(borderColor);
-        graphics.setStroke(new BasicStroke(borderWidth));
+    private void appendSegment(Path2D.Float path, int from, int to)
+    {
+        path.moveTo(lattice.getX(from), lattice.getY(from));
+        path.lineTo(lattice.getX(to), lattice.getY(to));
+    }
 
-        if (isEastHalf && isNorthHalf)
+    /**
+     * Appends an outline as a closed loop, or only its sides in front of the
+     * camera if part of it is behind it.
+     *
+     * @return true if the whole loop was appended
+     */
+    private boolean appendOutline(Path2D.Float path, RangeOutlines outlines, int outline)
+    {
+        int length = outlines.getOutlineLength(outline);
+        boolean visible = true;
+        for (int vertex = 0; vertex < length && visible; vertex++)
         {
-            // Northeast corner borders
-            if (drawNorth)
-            {
-                graphics.drawLine(halfPoly.xpoints[1], halfPoly.ypoints[1], halfPoly.xpoints[2], halfPoly.ypoints[2]);
-            }
-            if (drawEast)
-            {
-                graphics.drawLine(halfPoly.xpoints[2], halfPoly.ypoints[2], halfPoly.xpoints[0], halfPoly.ypoints[0]);
-            }
+            visible = lattice.isVisible(outlines.getOutlineCorner(outline, vertex));
         }
-        else if (isEastHalf)
+
+        if (visible)
         {
-            if (drawSouth)
-            {
-                graphics.drawLine(halfPoly.xpoints[0], halfPoly.ypoints[0], halfPoly.xpoints[1], halfPoly.ypoints[1]);
-            }
-            if (drawEast)
+            int first = outlines.getOutlineCorner(outline, 0);
+            path.moveTo(lattice.getX(first), lattice.getY(first));
+            for (int vertex = 1; vertex < length; vertex++)
             {
-                graphics.drawLine(halfPoly.xpoints[1], halfPoly.ypoints[1], halfPoly.xpoints[2], halfPoly.ypoints[2]);
+                int corner = outlines.getOutlineCorner(outline, vertex);
+                path.lineTo(lattice.getX(corner), lattice.getY(corner));
             }
-            if (drawNorth)
+            path.closePath();
+            return true;
+        }
+
+        // Part of the loop is behind the camera, so only keep the sides in front of it
+        for (int vertex = 0; vertex < length; vertex++)
+        {
+            int from = outlines.getOutlineCorner(outline, vertex);
+            int to = outlines.getOutlineCorner(outline, (vertex + 1) % length);
+            if (lattice.isVisible(from) && lattice.isVisible(to))
             {
-                graphics.drawLine(halfPoly.xpoints[2], halfPoly.ypoints[2], halfPoly.xpoints[3], halfPoly.ypoints[3]);
+                appendSegment(path, from, to);
             }
         }
-        else if (isNorthHalf)
+        return false;
+    }
+
+    /**
+     * Draws the best position tile filled and crossed, so it stands out from the range tiles around it.
+     */
+    private void renderBestPosition(Graphics2D graphics, RenderConfig renderConfig)
+    {
+        BestPositionMarker marker = plugin.getBestPosition();
+        bestPositionFill.reset();
+        bestPositionCross.reset();
+        bestPositionFill.moveTo(marker.getCanvasX(SalvageRangeGeometry.SW), marker.getCanvasY(SalvageRangeGeometry.SW));
+        bestPositionFill.lineTo(marker.getCanvasX(SalvageRangeGeometry.SE), marker.getCanvasY(SalvageRangeGeometry.SE));
+        bestPositionFill.lineTo(marker.getCanvasX(SalvageRangeGeometry.NE), marker.getCanvasY(SalvageRangeGeometry.NE));
+        bestPositionFill.lineTo(marker.getCanvasX(SalvageRangeGeometry.NW), marker.getCanvasY(SalvageRangeGeometry.NW));
+        bestPositionFill.closePath();
+        bestPositionCross.moveTo(marker.getCanvasX(SalvageRangeGeometry.SW), marker.getCanvasY(SalvageRangeGeometry.SW));
+        bestPositionCross.lineTo(marker.getCanvasX(SalvageRangeGeometry.NE), marker.getCanvasY(SalvageRangeGeometry.NE));
+        bestPositionCross.moveTo(marker.getCanvasX(SalvageRangeGeometry.SE), marker.getCanvasY(SalvageRangeGeometry.SE));
+        bestPositionCross.lineTo(marker.getCanvasX(SalvageRangeGeometry.NW), marker.getCanvasY(SalvageRangeGeometry.NW));
+
+        graphics.setColor(renderConfig.getBestPositionFillColor());
+        fill(graphics, bestPositionFill);
+        graphics.setColor(renderConfig.getBestPositionColor());
+        graphics.setStroke(renderConfig.getBestPositionStroke());
+        draw(graphics, bestPositionFill);
+        draw(graphics, bestPositionCross);
+    }
+
+    /**
+     * Draws the route to range as one polyline, broken where a point is behind the camera.
+     */
+    private void renderRangePath(Graphics2D graphics, RenderConfig renderConfig)
+    {
+        RangePath rangePath = plugin.getRangePath();
+        if (rangePath.getCount() == 0)
+        {
+            return;
+        }
+
+        rangePath.project(client);
+        rangePathLine.reset();
+        boolean connected = false;
+        for (int point = 0; point < rangePath.getCount(); point++)
         {
-            if (drawWest)
+            if (!rangePath.isVisible(point))
             {
-                graphics.drawLine(halfPoly.xpoints[3], halfPoly.ypoints[3], halfPoly.xpoints[0], halfPoly.ypoints[0]);
+                connected = false;
             }
-            if (drawNorth)
+            else if (connected)
             {
-                graphics.drawLine(halfPoly.xpoints[2], halfPoly.ypoints[2], halfPoly.xpoints[3], halfPoly.ypoints[3]);
+                rangePathLine.lineTo(rangePath.getCanvasX(point), rangePath.getCanvasY(point));
             }
-            if (drawEast)
+            else
             {
-                graphics.drawLine(halfPoly.xpoints[1], halfPoly.ypoints[1], halfPoly.xpoints[2], halfPoly.ypoints[2]);
+                rangePathLine.moveTo(rangePath.getCanvasX(point), rangePath.getCanvasY(point));
+                connected = true;
             }
         }
+
+        graphics.setColor(renderConfig.getRangePathColor());
+        graphics.setStroke(renderConfig.getRangePathStroke());
+        draw(graphics, rangePathLine);
     }
 
-    private void renderNpcTileMarker(Graphics2D graphics, NPC npc)
+    private void renderHullCoverage(Graphics2D graphics, RenderConfig renderConfig)
     {
-        WorldPoint npcWorldPoint = npc.getWorldLocation();
-        if (npcWorldPoint == null)
-        {
-            return;
-        }
+        HullCoverage hullCoverage = plugin.getHullCoverage();
+        hullCoverage.project(client);
 
-        LocalPoint localPoint = LocalPoint.fromWorld(client, npcWorldPoint);
-        if (localPoint == null)
+        graphics.setStroke(renderConfig.getNpcMarkerStroke());
+        for (int wreck = 0; wreck < hullCoverage.getCount(); wreck++)
         {
-            return;
-        }
+            if (!hullCoverage.isVisible(wreck))
+            {
+                continue;
+            }
 
-        Polygon tilePoly = Perspective.getCanvasTilePoly(client, localPoint);
-        if (tilePoly == null)
-        {
-            return;
+            int x = hullCoverage.getCanvasX(wreck) - HULL_DOT_SIZE / 2;
+            int y = hullCoverage.getCanvasY(wreck) - HULL_DOT_SIZE / 2;
+            graphics.setColor(renderConfig.getHullCoverageColor(hullCoverage.getStatus(wreck)));
+            graphics.fillOval(x, y, HULL_DOT_SIZE, HULL_DOT_SIZE);
+            drawCalls++;
+            graphics.setColor(Color.BLACK);
+            graphics.drawOval(x, y, HULL_DOT_SIZE, HULL_DOT_SIZE);
+            drawCalls++;
         }
+    }
 
-        int centerX, centerY;
+    private void renderNpcMarkers(Graphics2D graphics, RenderConfig renderConfig)
+    {
+        NpcMarkers npcMarkers = plugin.getNpcMarkers();
+        npcMarkers.project(client);
 
-        // Check if this is the 2x2 NPC (ID 15187)
-        if (plugin.isLargeNpc(npc))
-        {
-            // For 2x2 NPC (15187), place on the center of the east edge of the southwest tile
-            // The NPC's world location is the southwest tile, so we use that directly
-            // East edge is between point 1 (SE) and point 2 (NE)
-            centerX = (tilePoly.xpoints[1] + tilePoly.xpoints[2]) / 2;
-            centerY = (tilePoly.ypoints[1] + tilePoly.ypoints[2]) / 2;
-        }
-        else if (plugin.isCenterNpc(npc))
+        graphics.setStroke(renderConfig.getNpcMarkerStroke());
+        for (int marker = 0; marker < npcMarkers.getCount(); marker++)
         {
-            // For center NPC (15186), place in the absolute center of the tile
-            centerX = (tilePoly.xpoints[0] + tilePoly.xpoints[1] + tilePoly.xpoints[2] + tilePoly.xpoints[3]) / 4;
-            centerY = (tilePoly.ypoints[0] + tilePoly.ypoints[1] + tilePoly.ypoints[2] + tilePoly.ypoints[3]) / 4;
-        }
-        else
-        {
-            // For other 1x1 NPCs (15188, 15189, 15190), use the center of the south edge
-            // South edge is between point 0 (SW) and point 1 (SE)
-            centerX = (tilePoly.xpoints[0] + tilePoly.xpoints[1]) / 2;
-            centerY = (tilePoly.ypoints[0] + tilePoly.ypoints[1]) / 2;
+            if (!npcMarkers.isVisible(marker))
+            {
+                continue;
+            }
+
+            int x = npcMarkers.getCanvasX(marker) - DOT_SIZE / 2;
+            int y = npcMarkers.getCanvasY(marker) - DOT_SIZE / 2;
+            graphics.setColor(renderConfig.getNpcMarkerColor());
+            graphics.fillOval(x, y, DOT_SIZE, DOT_SIZE);
+            drawCalls++;
+            // Border for better visibility
+            graphics.setColor(Color.BLACK);
+            graphics.drawOval(x, y, DOT_SIZE, DOT_SIZE);
+            drawCalls++;
         }
+    }
 
-        // Draw the dot
-        Color dotColor = config.npcMarkerColor();
-        graphics.setColor(dotColor);
-        graphics.fillOval(centerX - DOT_SIZE / 2, centerY - DOT_SIZE / 2, DOT_SIZE, DOT_SIZE);
+    private void fill(Graphics2D graphics, Shape shape)
+    {
+        graphics.fill(shape);
+        drawCalls++;
+    }
 
-        // Optional: Add a border to the dot for better visibility
-        graphics.setColor(Color.BLACK);
-        graphics.setStroke(new BasicStroke(1));
-        graphics.drawOval(centerX - DOT_SIZE / 2, centerY - DOT_SIZE / 2, DOT_SIZE, DOT_SIZE);
+    private void draw(Graphics2D graphics, Shape shape)
+    {
+        graphics.draw(shape);
+        drawCalls++;
     }
-}
\ No newline at end of file
+}
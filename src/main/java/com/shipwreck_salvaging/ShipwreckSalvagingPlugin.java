@@ -4,22 +4,36 @@ import com.google.inject.Provides;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.Constants;
 import net.runelite.api.GameObject;
 import net.runelite.api.NPC;
+import net.runelite.api.Scene;
+import net.runelite.api.Tile;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.BeforeRender;
 import net.runelite.api.events.GameObjectSpawned;
 import net.runelite.api.events.GameObjectDespawned;
 import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
 import net.runelite.api.events.NpcSpawned;
 import net.runelite.api.events.NpcDespawned;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.overlay.OverlayManager;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @PluginDescriptor(
@@ -29,39 +43,17 @@ import java.util.Set;
 )
 public class ShipwreckSalvagingPlugin extends Plugin
 {
-    // Shipwreck IDs
-    private static final Set<Integer> SMALL_SHIPWRECK_SALVAGEABLE_IDS = Set.of(60464);
-    private static final Set<Integer> SMALL_SHIPWRECK_DEPLETED_IDS = Set.of(60465);
-
-    private static final Set<Integer> FISHERMAN_SHIPWRECK_SALVAGEABLE_IDS = Set.of(60466);
-    private static final Set<Integer> FISHERMAN_SHIPWRECK_DEPLETED_IDS = Set.of(60467);
-
-    private static final Set<Integer> BARRACUDA_SHIPWRECK_SALVAGEABLE_IDS = Set.of(60468);
-    private static final Set<Integer> BARRACUDA_SHIPWRECK_DEPLETED_IDS = Set.of(60469);
-
-    private static final Set<Integer> LARGE_SHIPWRECK_SALVAGEABLE_IDS = Set.of(60470);
-    private static final Set<Integer> LARGE_SHIPWRECK_DEPLETED_IDS = Set.of(60471);
-
-    private static final Set<Integer> PIRATE_SHIPWRECK_SALVAGEABLE_IDS = Set.of(60472);
-    private static final Set<Integer> PIRATE_SHIPWRECK_DEPLETED_IDS = Set.of(60473);
-
-    private static final Set<Integer> MERCENARY_SHIPWRECK_SALVAGEABLE_IDS = Set.of(60474);
-    private static final Set<Integer> MERCENARY_SHIPWRECK_DEPLETED_IDS = Set.of(60475);
-
-    private static final Set<Integer> FREMENNIK_SHIPWRECK_SALVAGEABLE_IDS = Set.of(60476);
-    private static final Set<Integer> FREMENNIK_SHIPWRECK_DEPLETED_IDS = Set.of(60477);
-
-    private static final Set<Integer> MERCHANT_SHIPWRECK_SALVAGEABLE_IDS = Set.of(60478);
-    private static final Set<Integer> MERCHANT_SHIPWRECK_DEPLETED_IDS = Set.of(60479);
-
-    // NPC IDs to track
-    private static final Set<Integer> TARGET_NPC_IDS = Set.of(15186, 15187, 15188, 15189, 15190);
-    private static final int LARGE_NPC_ID = 15187; // 2x2 NPC that needs special handling
-    private static final int CENTER_NPC_ID = 15186; // NPC that needs center placement
+    // Time each tick may spend spreading distance field changes
+    private static final long PATH_BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    // Ticks between batches of wreck index writes
+    private static final int INDEX_FLUSH_TICKS = 50;
 
     @Inject
     private Client client;
 
+    @Inject
+    private ClientThread clientThread;
+
     @Inject
     private ShipwreckSalvagingConfig config;
 
@@ -71,23 +63,79 @@ public class ShipwreckSalvagingPlugin extends Plugin
     @Inject
     private ShipwreckSalvagingOverlay overlay;
 
+    @Inject
+    private ShipwreckSalvagingMetricsOverlay metricsOverlay;
+
+    @Inject
+    private ShipwreckSalvagingWorldMapOverlay worldMapOverlay;
+
+    @Inject
+    private ShipwreckSalvagingMinimapOverlay minimapOverlay;
+
+    // Every shipwreck in the scene, including disabled types so that enabling one needs no reload
     private final Set<GameObject> activeShipwrecks = new HashSet<>();
-    private final Set<NPC> trackedNpcs = new HashSet<>();
+    private final PivotNpcTracker pivotNpcs = new PivotNpcTracker();
+    private final SceneChangeQueue sceneChanges = new SceneChangeQueue();
+    // Counts and packed origins of the salvage ranges, read by every range feature
+    private final SalvageRangeGrid rangeGrid = new SalvageRangeGrid();
+    private final GeometryWorker geometryWorker = new GeometryWorker();
+    private final NpcMarkers npcMarkers = new NpcMarkers();
+    private final SalvagePositionSolver positionSolver = new SalvagePositionSolver();
+    private final BestPositionMarker bestPosition = new BestPositionMarker();
+    private final HullCoverage hullCoverage = new HullCoverage();
+    private final RangeDistanceField distanceField = new RangeDistanceField();
+    private final RangePath rangePath = new RangePath();
+    // What the distance field sources were last taken from, -1 when the field must be reset
+    private int fieldSceneVersion = -1;
+    private int fieldConfigVersion = -1;
+    private int fieldPlane = -1;
+    // Scene tile of the boat this tick, when there is a boat or player to place it
+    private boolean boatKnown;
+    private int boatX;
+    private int boatY;
+    // What the position solver last ran for, -1 when it has not run yet
+    private int solvedSceneVersion = -1;
+    private int solvedConfigVersion = -1;
+    private int solvedPlane = -1;
+    private final SessionRecorder sessionRecorder = new SessionRecorder();
+    private final WreckIndex wreckIndex = new WreckIndex(WreckIndex.DEFAULT_FILE);
+    private int ticksSinceIndexFlush;
+    private final RenderMetrics renderMetrics = new RenderMetrics();
+    // Bumped whenever the config changes, invalidating the geometry along with the scene change version
+    private int configVersion;
+    // Sequence of the last geometry snapshot, 0 being the empty geometry the worker starts with
+    private int geometrySequence;
+    // What the last geometry snapshot was taken for, -1 when none was taken yet
+    private int geometrySceneVersion = -1;
+    private int geometryConfigVersion = -1;
+    private int geometryPlane = -1;
+    private volatile RenderConfig renderConfig;
 
     @Override
     protected void startUp() throws Exception
     {
+        renderConfig = RenderConfig.from(config);
         overlayManager.add(overlay);
-        // Scan for existing NPCs when plugin starts
+        overlayManager.add(metricsOverlay);
+        overlayManager.add(worldMapOverlay);
+        overlayManager.add(minimapOverlay);
+        geometryWorker.start();
+        if (config.recordSession())
+        {
+            sessionRecorder.start();
+        }
+        if (config.rememberShipwrecks())
+        {
+            wreckIndex.open(clientThread::invokeLater, this::rememberActiveShipwrecks);
+        }
+        // Pick up wrecks and NPCs that spawned before the plugin started
         if (client.getGameState() == net.runelite.api.GameState.LOGGED_IN)
         {
-            for (NPC npc : client.getNpcs())
+            clientThread.invokeLater(() ->
             {
-                if (TARGET_NPC_IDS.contains(npc.getId()))
-                {
-                    trackedNpcs.add(npc);
-                }
-            }
+                scanScene();
+                pivotNpcs.scan(client.getNpcs());
+            });
         }
         log.info("Shipwreck Salvaging started!");
     }
@@ -96,8 +144,24 @@ public class ShipwreckSalvagingPlugin extends Plugin
     protected void shutDown() throws Exception
     {
         overlayManager.remove(overlay);
+        overlayManager.remove(metricsOverlay);
+        overlayManager.remove(worldMapOverlay);
+        overlayManager.remove(minimapOverlay);
+        renderMetrics.reset();
+        sessionRecorder.stop();
+        wreckIndex.close();
+        geometryWorker.stop();
+        geometrySceneVersion = geometryConfigVersion = geometryPlane = -1;
         activeShipwrecks.clear();
-        trackedNpcs.clear();
+        pivotNpcs.clear();
+        sceneChanges.clear();
+        npcMarkers.clear();
+        bestPosition.clear();
+        hullCoverage.clear();
+        rangePath.clear();
+        solvedSceneVersion = solvedConfigVersion = solvedPlane = -1;
+        fieldSceneVersion = fieldConfigVersion = fieldPlane = -1;
+        rangeGrid.clear();
         log.info("Shipwreck Salvaging stopped!");
     }
 
@@ -105,9 +169,13 @@ public class ShipwreckSalvagingPlugin extends Plugin
     public void onGameObjectSpawned(GameObjectSpawned event)
     {
         GameObject gameObject = event.getGameObject();
-        if (isShipwreck(gameObject) && isShipwreckEnabled(gameObject))
+        if (sessionRecorder.isRecording() && isShipwreck(gameObject))
+        {
+            sessionRecorder.objectSpawned(gameObject);
+        }
+        if (isShipwreck(gameObject))
         {
-            activeShipwrecks.add(gameObject);
+            sceneChanges.wreckSpawned(gameObject);
         }
     }
 
@@ -115,16 +183,27 @@ public class ShipwreckSalvagingPlugin extends Plugin
     public void onGameObjectDespawned(GameObjectDespawned event)
     {
         GameObject gameObject = event.getGameObject();
-        activeShipwrecks.remove(gameObject);
+        if (sessionRecorder.isRecording() && isShipwreck(gameObject))
+        {
+            sessionRecorder.objectDespawned(gameObject);
+        }
+        if (isShipwreck(gameObject))
+        {
+            sceneChanges.wreckDespawned(gameObject);
+        }
     }
 
     @Subscribe
     public void onNpcSpawned(NpcSpawned event)
     {
         NPC npc = event.getNpc();
-        if (TARGET_NPC_IDS.contains(npc.getId()))
+        if (PivotNpcTracker.isPivotNpc(npc.getId()))
         {
-            trackedNpcs.add(npc);
+            sceneChanges.npcSpawned(npc);
+            if (sessionRecorder.isRecording())
+            {
+                sessionRecorder.npcSpawned(npc);
+            }
         }
     }
 
@@ -132,28 +211,385 @@ public class ShipwreckSalvagingPlugin extends Plugin
     public void onNpcDespawned(NpcDespawned event)
     {
         NPC npc = event.getNpc();
-        trackedNpcs.remove(npc);
+        if (PivotNpcTracker.isPivotNpc(npc.getId()))
+        {
+            sceneChanges.npcDespawned(npc);
+            if (sessionRecorder.isRecording())
+            {
+                sessionRecorder.npcDespawned(npc);
+            }
+        }
+    }
+
+    @Subscribe
+    public void onGameTick(GameTick event)
+    {
+        applySceneChanges();
+        pivotNpcs.reconcile(client.getTopLevelWorldView());
+
+        if (sessionRecorder.isRecording())
+        {
+            sessionRecorder.gameTick(pivotNpcs.getNpcs());
+        }
+
+        // NPC tiles only change on a tick, so resolve marker positions here rather than every frame
+        npcMarkers.update(client, pivotNpcs.getNpcs());
+        updateBoatPosition();
+        updateBestPosition();
+        updateRangePath();
+
+        if (++ticksSinceIndexFlush >= INDEX_FLUSH_TICKS)
+        {
+            wreckIndex.flush();
+            ticksSinceIndexFlush = 0;
+        }
+
+        if (renderConfig.isShowHullCoverage())
+        {
+            hullCoverage.update(client, pivotNpcs.getNpcs(), rangeGrid.getOrigins(), rangeGrid.getOriginCount());
+        }
+        else
+        {
+            hullCoverage.clear();
+        }
+    }
+
+    @Subscribe
+    public void onBeforeRender(BeforeRender event)
+    {
+        // Changes outside of a tick, such as a scene load, must be applied before the overlay draws
+        applySceneChanges();
     }
 
     @Subscribe
     public void onGameStateChanged(GameStateChanged event)
     {
+        if (sessionRecorder.isRecording())
+        {
+            sessionRecorder.gameStateChanged(event.getGameState(), client.getTopLevelWorldView());
+        }
+
         if (event.getGameState().equals(net.runelite.api.GameState.LOADING))
         {
+            // Apply what is queued first so that no spawn from the old scene outlives the clear
+            applySceneChanges();
+            // The wrecks of the old scene stay in the index, write what changed while in it
+            wreckIndex.flush();
+            ticksSinceIndexFlush = 0;
             activeShipwrecks.clear();
-            // Don't clear trackedNpcs here - let them persist
+            rangeGrid.clear();
+            npcMarkers.clear();
+            bestPosition.clear();
+            hullCoverage.clear();
+            rangePath.clear();
+            // The collision data is replaced along with the scene
+            fieldPlane = -1;
+            sceneChanges.advance();
+            // Pivot NPCs can survive a scene load, the next tick drops the ones that did not
         }
         else if (event.getGameState().equals(net.runelite.api.GameState.LOGGED_IN))
         {
-            // Re-scan for NPCs after loading to pick up any new ones
-            for (NPC npc : client.getNpcs())
+            // Re-scan after loading to pick up anything that spawned before the events were seen
+            scanScene();
+            pivotNpcs.scan(client.getNpcs());
+        }
+    }
+
+    @Subscribe
+    public void onConfigChanged(ConfigChanged event)
+    {
+        if (ShipwreckSalvagingConfig.GROUP.equals(event.getGroup()))
+        {
+            renderConfig = RenderConfig.from(config);
+            // Disabled types stay in activeShipwrecks, so a type toggle only needs the ranges counted again
+            clientThread.invokeLater(this::rebuildRangeGrid);
+            if ("recordSession".equals(event.getKey()))
             {
-                if (TARGET_NPC_IDS.contains(npc.getId()))
+                clientThread.invokeLater(this::updateSessionRecording);
+            }
+            if ("rememberShipwrecks".equals(event.getKey()))
+            {
+                clientThread.invokeLater(this::updateWreckIndex);
+            }
+        }
+    }
+
+    private void updateSessionRecording()
+    {
+        if (config.recordSession())
+        {
+            sessionRecorder.start();
+        }
+        else
+        {
+            sessionRecorder.stop();
+        }
+    }
+
+    private void updateWreckIndex()
+    {
+        if (config.rememberShipwrecks())
+        {
+            wreckIndex.open(clientThread::invokeLater, this::rememberActiveShipwrecks);
+        }
+        else
+        {
+            wreckIndex.close();
+        }
+    }
+
+    /**
+     * Rebuilds the set of shipwrecks from the game objects already in the
+     * scene, in a single pass over the tiles that only looks closer at
+     * shipwreck ids.
+     */
+    private void scanScene()
+    {
+        activeShipwrecks.clear();
+        Scene scene = client.getTopLevelWorldView().getScene();
+        Tile[][][] tiles = scene == null ? null : scene.getTiles();
+        if (tiles != null)
+        {
+            for (Tile[][] plane : tiles)
+            {
+                for (Tile[] column : plane)
                 {
-                    trackedNpcs.add(npc);
+                    for (Tile tile : column)
+                    {
+                        if (tile == null)
+                        {
+                            continue;
+                        }
+
+                        GameObject[] gameObjects = tile.getGameObjects();
+                        if (gameObjects == null)
+                        {
+                            continue;
+                        }
+
+                        for (GameObject gameObject : gameObjects)
+                        {
+                            // A wreck covers several tiles, the set keeps one entry for it
+                            if (gameObject != null && isShipwreck(gameObject) && activeShipwrecks.add(gameObject))
+                            {
+                                rememberShipwreck(gameObject);
+                            }
+                        }
+                    }
                 }
             }
         }
+
+        sceneChanges.advance();
+        rebuildRangeGrid();
+    }
+
+    /**
+     * Moves the best position marker to the highest coverage tile nearest the
+     * boat. Coverage is only solved again when the wreck set, config or plane
+     * changed; choosing among the tied tiles is cheap enough for every tick.
+     */
+    private void updateBestPosition()
+    {
+        if (!renderConfig.isShowBestPosition())
+        {
+            bestPosition.clear();
+            return;
+        }
+
+        WorldView worldView = client.getTopLevelWorldView();
+        int plane = worldView.getPlane();
+        int sceneVersion = sceneChanges.getVersion();
+        if (sceneVersion != solvedSceneVersion || configVersion != solvedConfigVersion || plane != solvedPlane)
+        {
+            solvedSceneVersion = sceneVersion;
+            solvedConfigVersion = configVersion;
+            solvedPlane = plane;
+            positionSolver.solve(rangeGrid.getOrigins(), rangeGrid.getOriginCount(), plane);
+        }
+
+        int fromX = boatKnown ? boatX : Constants.SCENE_SIZE / 2;
+        int fromY = boatKnown ? boatY : Constants.SCENE_SIZE / 2;
+        bestPosition.update(client, positionSolver.nearest(fromX, fromY), positionSolver.getMaxCoverage());
+    }
+
+    /**
+     * The boat is where its pivot NPCs are, or where the player stands when there are none.
+     */
+    private void updateBoatPosition()
+    {
+        int x = 0, y = 0, pivots = 0;
+        for (NPC npc : pivotNpcs.getNpcs())
+        {
+            LocalPoint localPoint = npc.getLocalLocation();
+            if (localPoint != null)
+            {
+                x += localPoint.getSceneX();
+                y += localPoint.getSceneY();
+                pivots++;
+            }
+        }
+
+        boatKnown = true;
+        if (pivots > 0)
+        {
+            boatX = x / pivots;
+            boatY = y / pivots;
+        }
+        else if (client.getLocalPlayer() != null && client.getLocalPlayer().getLocalLocation() != null)
+        {
+            LocalPoint localPoint = client.getLocalPlayer().getLocalLocation();
+            boatX = localPoint.getSceneX();
+            boatY = localPoint.getSceneY();
+        }
+        else
+        {
+            boatKnown = false;
+        }
+    }
+
+    /**
+     * Keeps the distance field in step with the covered tiles and reads the
+     * route from the boat off it. The field is only reset when the plane or
+     * scene changed; a changed wreck set only moves its sources, and the
+     * spreading that follows is spread over ticks by a small time budget.
+     */
+    private void updateRangePath()
+    {
+        if (!renderConfig.isShowRangePath())
+        {
+            rangePath.clear();
+            return;
+        }
+
+        WorldView worldView = client.getTopLevelWorldView();
+        int plane = worldView.getPlane();
+        int sceneVersion = sceneChanges.getVersion();
+        if (plane != fieldPlane)
+        {
+            CollisionData[] collisionMaps = worldView.getCollisionMaps();
+            CollisionData collisionData = collisionMaps == null ? null : collisionMaps[plane];
+            distanceField.reset(collisionData == null ? null : collisionData.getFlags(), plane);
+            fieldPlane = plane;
+            fieldSceneVersion = fieldConfigVersion = -1;
+        }
+        if (sceneVersion != fieldSceneVersion || configVersion != fieldConfigVersion)
+        {
+            fieldSceneVersion = sceneVersion;
+            fieldConfigVersion = configVersion;
+            distanceField.updateSources(rangeGrid);
+        }
+        distanceField.propagate(PATH_BUDGET_NANOS);
+
+        if (boatKnown)
+        {
+            rangePath.update(client, distanceField, boatX, boatY);
+        }
+        else
+        {
+            rangePath.clear();
+        }
+    }
+
+    /**
+     * Applies the spawns and despawns queued since the last call as one batch,
+     * so a burst of them advances the scene change version only once.
+     */
+    private void applySceneChanges()
+    {
+        if (sceneChanges.isEmpty())
+        {
+            return;
+        }
+
+        boolean wrecksChanged = false;
+        for (Map.Entry<GameObject, Boolean> change : sceneChanges.getWreckChanges().entrySet())
+        {
+            GameObject shipwreck = change.getKey();
+            if (change.getValue())
+            {
+                if (activeShipwrecks.add(shipwreck))
+                {
+                    rememberShipwreck(shipwreck);
+                    addRangeFootprint(shipwreck);
+                    wrecksChanged = true;
+                }
+            }
+            else if (activeShipwrecks.remove(shipwreck))
+            {
+                rangeGrid.remove(shipwreck);
+                wrecksChanged = true;
+            }
+        }
+
+        for (Map.Entry<NPC, Boolean> change : sceneChanges.getNpcChanges().entrySet())
+        {
+            if (change.getValue())
+            {
+                pivotNpcs.add(change.getKey());
+            }
+            else
+            {
+                pivotNpcs.remove(change.getKey());
+            }
+        }
+
+        sceneChanges.clear();
+        if (wrecksChanged)
+        {
+            sceneChanges.advance();
+        }
+    }
+
+    private void rememberShipwreck(GameObject shipwreck)
+    {
+        if (wreckIndex.isOpen())
+        {
+            wreckIndex.record(shipwreck.getId(), shipwreck.getWorldLocation(), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Records the wrecks in the scene once the index has loaded, as sightings
+     * while it was loading were not kept.
+     */
+    private void rememberActiveShipwrecks()
+    {
+        for (GameObject shipwreck : activeShipwrecks)
+        {
+            rememberShipwreck(shipwreck);
+        }
+    }
+
+    private void rebuildRangeGrid()
+    {
+        rangeGrid.clear();
+        for (GameObject shipwreck : activeShipwrecks)
+        {
+            addRangeFootprint(shipwreck);
+        }
+        configVersion++;
+    }
+
+    private void addRangeFootprint(GameObject shipwreck)
+    {
+        // Counted whether or not the range is drawn, as the best position, hull coverage and route read it too
+        if (!isShipwreckSalvageable(shipwreck) || !isShipwreckEnabled(shipwreck))
+        {
+            return;
+        }
+
+        // The south-west tile may be just outside the scene while the range still reaches into it
+        WorldPoint location = shipwreck.getWorldLocation();
+        WorldView worldView = client.getTopLevelWorldView();
+        int sceneX = location.getX() - worldView.getBaseX();
+        int sceneY = location.getY() - worldView.getBaseY();
+        if (!SalvageRangeGrid.reachesScene(sceneX, sceneY))
+        {
+            return;
+        }
+
+        rangeGrid.add(shipwreck, SalvageRangeGrid.pack(sceneX, sceneY, location.getPlane()));
     }
 
     public Set<GameObject> getActiveShipwrecks()
@@ -161,74 +597,155 @@ public class ShipwreckSalvagingPlugin extends Plugin
         return activeShipwrecks;
     }
 
-    public Set<NPC> getTrackedNpcs()
+    public Collection<NPC> getTrackedNpcs()
+    {
+        return pivotNpcs.getNpcs();
+    }
+
+    RenderConfig getRenderConfig()
+    {
+        return renderConfig;
+    }
+
+    /**
+     * Version of the wreck set, which only goes up and changes at most once per
+     * applied batch of spawns and despawns.
+     */
+    int getSceneVersion()
+    {
+        return sceneChanges.getVersion();
+    }
+
+    SessionRecorder getSessionRecorder()
+    {
+        return sessionRecorder;
+    }
+
+    RenderMetrics getRenderMetrics()
+    {
+        return renderMetrics;
+    }
+
+    BestPositionMarker getBestPosition()
+    {
+        return bestPosition;
+    }
+
+    HullCoverage getHullCoverage()
+    {
+        return hullCoverage;
+    }
+
+    WreckIndex getWreckIndex()
+    {
+        return wreckIndex;
+    }
+
+    RangePath getRangePath()
     {
-        return trackedNpcs;
+        return rangePath;
     }
 
-    public boolean isLargeNpc(NPC npc)
+    RangeDistanceField getDistanceField()
     {
-        return npc.getId() == LARGE_NPC_ID;
+        return distanceField;
     }
 
-    public boolean isCenterNpc(NPC npc)
+    NpcMarkers getNpcMarkers()
     {
-        return npc.getId() == CENTER_NPC_ID;
+        return npcMarkers;
+    }
+
+    /**
+     * Latest built range geometry. When the wreck set, config or plane changed
+     * since the last call a snapshot is handed to the geometry worker, and the
+     * previous geometry is returned until the new one is published.
+     */
+    SalvageRangeGeometry getRangeGeometry()
+    {
+        int plane = client.getTopLevelWorldView().getPlane();
+        int sceneVersion = sceneChanges.getVersion();
+        if (sceneVersion != geometrySceneVersion || configVersion != geometryConfigVersion || plane != geometryPlane)
+        {
+            geometrySceneVersion = sceneVersion;
+            geometryConfigVersion = configVersion;
+            geometryPlane = plane;
+            geometryWorker.submit(snapshotGeometry(plane));
+        }
+        return geometryWorker.getGeometry();
+    }
+
+    /**
+     * Build count of the latest published range geometry. Unlike
+     * {@link #getRangeGeometry()} this never submits a new snapshot.
+     */
+    int getGeometryBuildCount()
+    {
+        return geometryWorker.getGeometry().getBuildCount();
+    }
+
+    private GeometrySnapshot snapshotGeometry(int plane)
+    {
+        int[] origins = rangeGrid.getOrigins();
+        int[] rangeOrigins = new int[rangeGrid.getOriginCount()];
+        int ranges = 0;
+        if (renderConfig.isShowSalvageRange())
+        {
+            for (int range = 0; range < rangeGrid.getOriginCount(); range++)
+            {
+                if (SalvageRangeGrid.unpackPlane(origins[range]) == plane)
+                {
+                    rangeOrigins[ranges++] = origins[range];
+                }
+            }
+        }
+
+        int[] highlightCentres = new int[0];
+        int highlights = 0;
+        if (renderConfig.isHighlightShipwreck())
+        {
+            highlightCentres = new int[activeShipwrecks.size() * 2];
+            for (GameObject shipwreck : activeShipwrecks)
+            {
+                if (!isShipwreckDepleted(shipwreck) || !isShipwreckEnabled(shipwreck)
+                        || shipwreck.getWorldLocation().getPlane() != plane)
+                {
+                    continue;
+                }
+
+                LocalPoint localPoint = shipwreck.getLocalLocation();
+                if (localPoint != null)
+                {
+                    highlightCentres[highlights++] = localPoint.getX();
+                    highlightCentres[highlights++] = localPoint.getY();
+                }
+            }
+        }
+
+        WorldView worldView = client.getTopLevelWorldView();
+        return new GeometrySnapshot(++geometrySequence, plane, renderConfig,
+                Arrays.copyOf(rangeOrigins, ranges), rangeGrid.copyPlane(plane),
+                Arrays.copyOf(highlightCentres, highlights), worldView.getTileHeights(), worldView.getTileSettings());
     }
 
     public boolean isShipwreckDepleted(GameObject gameObject)
     {
-        int id = gameObject.getId();
-        return SMALL_SHIPWRECK_DEPLETED_IDS.contains(id) ||
-                FISHERMAN_SHIPWRECK_DEPLETED_IDS.contains(id) ||
-                BARRACUDA_SHIPWRECK_DEPLETED_IDS.contains(id) ||
-                LARGE_SHIPWRECK_DEPLETED_IDS.contains(id) ||
-                PIRATE_SHIPWRECK_DEPLETED_IDS.contains(id) ||
-                MERCENARY_SHIPWRECK_DEPLETED_IDS.contains(id) ||
-                FREMENNIK_SHIPWRECK_DEPLETED_IDS.contains(id) ||
-                MERCHANT_SHIPWRECK_DEPLETED_IDS.contains(id);
+        return ShipwreckType.isDepleted(gameObject.getId());
     }
 
     public boolean isShipwreckSalvageable(GameObject gameObject)
     {
-        int id = gameObject.getId();
-        return SMALL_SHIPWRECK_SALVAGEABLE_IDS.contains(id) ||
-                FISHERMAN_SHIPWRECK_SALVAGEABLE_IDS.contains(id) ||
-                BARRACUDA_SHIPWRECK_SALVAGEABLE_IDS.contains(id) ||
-                LARGE_SHIPWRECK_SALVAGEABLE_IDS.contains(id) ||
-                PIRATE_SHIPWRECK_SALVAGEABLE_IDS.contains(id) ||
-                MERCENARY_SHIPWRECK_SALVAGEABLE_IDS.contains(id) ||
-                FREMENNIK_SHIPWRECK_SALVAGEABLE_IDS.contains(id) ||
-                MERCHANT_SHIPWRECK_SALVAGEABLE_IDS.contains(id);
+        return ShipwreckType.isSalvageable(gameObject.getId());
     }
 
     private boolean isShipwreck(GameObject gameObject)
     {
-        return isShipwreckSalvageable(gameObject) || isShipwreckDepleted(gameObject);
+        return ShipwreckType.isShipwreck(gameObject.getId());
     }
 
     public boolean isShipwreckEnabled(GameObject gameObject)
     {
-        int id = gameObject.getId();
-
-        if (SMALL_SHIPWRECK_SALVAGEABLE_IDS.contains(id) || SMALL_SHIPWRECK_DEPLETED_IDS.contains(id))
-            return config.showSmallShipwreck();
-        if (FISHERMAN_SHIPWRECK_SALVAGEABLE_IDS.contains(id) || FISHERMAN_SHIPWRECK_DEPLETED_IDS.contains(id))
-            return config.showFishermanShipwreck();
-        if (BARRACUDA_SHIPWRECK_SALVAGEABLE_IDS.contains(id) || BARRACUDA_SHIPWRECK_DEPLETED_IDS.contains(id))
-            return config.showBarracudaShipwreck();
-        if (LARGE_SHIPWRECK_SALVAGEABLE_IDS.contains(id) || LARGE_SHIPWRECK_DEPLETED_IDS.contains(id))
-            return config.showLargeShipwreck();
-        if (PIRATE_SHIPWRECK_SALVAGEABLE_IDS.contains(id) || PIRATE_SHIPWRECK_DEPLETED_IDS.contains(id))
-            return config.showPirateShipwreck();
-        if (MERCENARY_SHIPWRECK_SALVAGEABLE_IDS.contains(id) || MERCENARY_SHIPWRECK_DEPLETED_IDS.contains(id))
-            return config.showMercenaryShipwreck();
-        if (FREMENNIK_SHIPWRECK_SALVAGEABLE_IDS.contains(id) || FREMENNIK_SHIPWRECK_DEPLETED_IDS.contains(id))
-            return config.showFremennikShipwreck();
-        if (MERCHANT_SHIPWRECK_SALVAGEABLE_IDS.contains(id) || MERCHANT_SHIPWRECK_DEPLETED_IDS.contains(id))
-            return config.showMerchantShipwreck();
-
-        return true;
+        return ShipwreckType.isEnabled(gameObject.getId(), renderConfig.getEnabledTypes());
     }
 
     @Provides
@@ -0,0 +1,158 @@
+package com.shipwrecksalvaging;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.GameObject;
+import net.runelite.api.Point;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.gameval.InterfaceID;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.worldmap.WorldMap;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayLayer;
+import net.runelite.client.ui.overlay.OverlayPosition;
+
+/**
+ * Known shipwrecks on the world map, colored by type and state.
+ * <p>
+ * Only the regions of the {@link WreckIndex} that the map view covers are
+ * visited, so the cost of a frame follows the wrecks in view rather than all
+ * the wrecks known. Without the index the wrecks of the current scene are
+ * shown instead.
+ */
+@Singleton
+public class ShipwreckSalvagingWorldMapOverlay extends Overlay
+{
+    private static final int ICON_SIZE = 11;
+    private static final int REGION_BITS = 6;
+
+    private final Client client;
+    private final ShipwreckSalvagingPlugin plugin;
+    private final WreckSprites sprites = new WreckSprites(ICON_SIZE);
+
+    // Map view of the current frame
+    private Rectangle bounds;
+    private float pixelsPerTile;
+    private int minX;
+    private int minY;
+    private int drawn;
+
+    @Inject
+    private ShipwreckSalvagingWorldMapOverlay(Client client, ShipwreckSalvagingPlugin plugin)
+    {
+        this.client = client;
+        this.plugin = plugin;
+        setPosition(OverlayPosition.DYNAMIC);
+        setLayer(OverlayLayer.MANUAL);
+        drawAfterInterface(InterfaceID.WORLDMAP);
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        final RenderConfig renderConfig = plugin.getRenderConfig();
+        drawn = 0;
+        if (!renderConfig.isShowOnWorldMap())
+        {
+            return null;
+        }
+
+        WorldMap worldMap = client.getWorldMap();
+        Widget view = client.getWidget(InterfaceID.Worldmap.MAP_CONTAINER);
+        if (worldMap == null || view == null || view.isHidden())
+        {
+            return null;
+        }
+
+        bounds = view.getBounds();
+        pixelsPerTile = worldMap.getWorldMapZoom();
+        Point centre = worldMap.getWorldMapPosition();
+        if (bounds.isEmpty() || pixelsPerTile <= 0 || centre == null)
+        {
+            return null;
+        }
+
+        int widthInTiles = (int) Math.ceil(bounds.getWidth() / pixelsPerTile);
+        int heightInTiles = (int) Math.ceil(bounds.getHeight() / pixelsPerTile);
+        minX = centre.getX() - widthInTiles / 2;
+        minY = centre.getY() - heightInTiles / 2;
+        // Tiles past the view edges whose icons still reach into it
+        int margin = (int) Math.ceil(ICON_SIZE / pixelsPerTile);
+
+        Shape clip = graphics.getClip();
+        graphics.clip(bounds);
+        int enabledTypes = renderConfig.getEnabledTypes();
+        WreckIndex wreckIndex = plugin.getWreckIndex();
+        if (wreckIndex.isOpen())
+        {
+            int minRegionX = Math.max(0, minX - margin) >> REGION_BITS;
+            int maxRegionX = Math.max(0, minX + widthInTiles + margin) >> REGION_BITS;
+            int minRegionY = Math.max(0, minY - margin) >> REGION_BITS;
+            int maxRegionY = Math.max(0, minY + heightInTiles + margin) >> REGION_BITS;
+            for (int regionX = minRegionX; regionX <= maxRegionX; regionX++)
+            {
+                for (int regionY = minRegionY; regionY <= maxRegionY; regionY++)
+                {
+                    int regionId = WreckIndex.regionId(regionX, regionY);
+                    for (int slot = wreckIndex.firstInRegion(regionId); slot >= 0; slot = wreckIndex.nextInRegion(slot))
+                    {
+                        ShipwreckType type = wreckIndex.getType(slot);
+                        if ((enabledTypes & type.mask()) != 0)
+                        {
+                            drawWreck(graphics, wreckIndex.getX(slot), wreckIndex.getY(slot), type,
+                                    wreckIndex.isDepleted(slot));
+                        }
+                    }
+                }
+            }
+        }
+        else
+        {
+            for (GameObject shipwreck : plugin.getActiveShipwrecks())
+            {
+                ShipwreckType type = ShipwreckType.forObjectId(shipwreck.getId());
+                if ((enabledTypes & type.mask()) != 0)
+                {
+                    WorldPoint location = shipwreck.getWorldLocation();
+                    drawWreck(graphics, location.getX(), location.getY(), type,
+                            ShipwreckType.isDepleted(shipwreck.getId()));
+                }
+            }
+        }
+        graphics.setClip(clip);
+        return null;
+    }
+
+    /**
+     * Draws the icon centred on the 2x2 wreck whose south-west tile is at the world point.
+     */
+    private void drawWreck(Graphics2D graphics, int worldX, int worldY, ShipwreckType type, boolean depleted)
+    {
+        // Same tile placement as the client's own world map points, moved to the wreck centre
+        double halfTile = pixelsPerTile - Math.ceil(pixelsPerTile / 2);
+        int x = (int) ((int) ((worldX - minX) * pixelsPerTile) + halfTile) + bounds.x + (int) (pixelsPerTile / 2);
+        int y = bounds.y + bounds.height - (int) ((int) ((worldY - minY + 1) * pixelsPerTile) - halfTile)
+                - (int) (pixelsPerTile / 2);
+        if (x < bounds.x - ICON_SIZE || x > bounds.x + bounds.width + ICON_SIZE
+                || y < bounds.y - ICON_SIZE || y > bounds.y + bounds.height + ICON_SIZE)
+        {
+            return;
+        }
+
+        graphics.drawImage(sprites.get(type, depleted), x - ICON_SIZE / 2, y - ICON_SIZE / 2, null);
+        drawn++;
+    }
+
+    /**
+     * Number of wreck icons drawn in the last frame.
+     */
+    int getDrawnCount()
+    {
+        return drawn;
+    }
+}
@@ -0,0 +1,124 @@
+package com.shipwrecksalvaging;
+
+import java.util.function.Predicate;
+
+enum ShipwreckType
+{
+    SMALL(60464, 60465, ShipwreckSalvagingConfig::showSmallShipwreck),
+    FISHERMAN(60466, 60467, ShipwreckSalvagingConfig::showFishermanShipwreck),
+    BARRACUDA(60468, 60469, ShipwreckSalvagingConfig::showBarracudaShipwreck),
+    LARGE(60470, 60471, ShipwreckSalvagingConfig::showLargeShipwreck),
+    PIRATE(60472, 60473, ShipwreckSalvagingConfig::showPirateShipwreck),
+    MERCENARY(60474, 60475, ShipwreckSalvagingConfig::showMercenaryShipwreck),
+    FREMENNIK(60476, 60477, ShipwreckSalvagingConfig::showFremennikShipwreck),
+    MERCHANT(60478, 60479, ShipwreckSalvagingConfig::showMerchantShipwreck);
+
+    // Lookup entries hold the type ordinal + 1 in the low bits, 0 meaning "not a shipwreck"
+    private static final int TYPE_BITS = 0x3F;
+    private static final int DEPLETED_FLAG = 0x40;
+
+    private static final ShipwreckType[] TYPES = values();
+    private static final int MIN_ID;
+    private static final byte[] LOOKUP;
+
+    static
+    {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (ShipwreckType type : TYPES)
+        {
+            min = Math.min(min, Math.min(type.salvageableId, type.depletedId));
+            max = Math.max(max, Math.max(type.salvageableId, type.depletedId));
+        }
+
+        MIN_ID = min;
+        LOOKUP = new byte[max - min + 1];
+        for (ShipwreckType type : TYPES)
+        {
+            LOOKUP[type.salvageableId - min] = (byte) (type.ordinal() + 1);
+            LOOKUP[type.depletedId - min] = (byte) ((type.ordinal() + 1) | DEPLETED_FLAG);
+        }
+    }
+
+    private final int salvageableId;
+    private final int depletedId;
+    private final Predicate<ShipwreckSalvagingConfig> enabled;
+
+    ShipwreckType(int salvageableId, int depletedId, Predicate<ShipwreckSalvagingConfig> enabled)
+    {
+        this.salvageableId = salvageableId;
+        this.depletedId = depletedId;
+        this.enabled = enabled;
+    }
+
+    int getSalvageableId()
+    {
+        return salvageableId;
+    }
+
+    int getDepletedId()
+    {
+        return depletedId;
+    }
+
+    int mask()
+    {
+        return 1 << ordinal();
+    }
+
+    private static int lookup(int objectId)
+    {
+        int index = objectId - MIN_ID;
+        return index >= 0 && index < LOOKUP.length ? LOOKUP[index] : 0;
+    }
+
+    static ShipwreckType byOrdinal(int ordinal)
+    {
+        return TYPES[ordinal];
+    }
+
+    static ShipwreckType forObjectId(int objectId)
+    {
+        int entry = lookup(objectId) & TYPE_BITS;
+        return entry == 0 ? null : TYPES[entry - 1];
+    }
+
+    static boolean isShipwreck(int objectId)
+    {
+        return lookup(objectId) != 0;
+    }
+
+    static boolean isDepleted(int objectId)
+    {
+        return (lookup(objectId) & DEPLETED_FLAG) != 0;
+    }
+
+    static boolean isSalvageable(int objectId)
+    {
+        int entry = lookup(objectId);
+        return entry != 0 && (entry & DEPLETED_FLAG) == 0;
+    }
+
+    /**
+     * Objects that are not shipwrecks are treated as enabled, matching the
+     * per-type toggles only ever hiding known wreck types.
+     */
+    static boolean isEnabled(int objectId, int enabledTypes)
+    {
+        int entry = lookup(objectId) & TYPE_BITS;
+        return entry == 0 || (enabledTypes & (1 << (entry - 1))) != 0;
+    }
+
+    static int enabledTypes(ShipwreckSalvagingConfig config)
+    {
+        int mask = 0;
+        for (ShipwreckType type : TYPES)
+        {
+            if (type.enabled.test(config))
+            {
+                mask |= type.mask();
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,624 @@
+package com.shipwrecksalvaging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.RuneLite;
+
+/**
+ * Every shipwreck seen in any session, with its type, world point, last state
+ * and when it was last seen and last depleted, kept across scene loads and
+ * restarts in a memory-mapped file of fixed size records.
+ * <p>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes, followed by
+ * records of {@link #RECORD_SIZE} bytes in the order the wrecks were first
+ * seen. It is mapped a power of two of records at a time, and the header
+ * count says how many are valid.
+ * <p>
+ * Wrecks are looked up through the 64x64 tile region they lie in, each
+ * region chaining its records by slot. Lookups and updates happen on the
+ * client thread against the in-memory copy; changed records are collected
+ * and handed to a writer thread as a batch on {@link #flush()}. The writer
+ * thread also loads and closes the file, so it alone touches the file and
+ * runs every operation on it in order. Neither opening nor closing waits for
+ * it: loaded records are handed back to the client thread, and the file is
+ * released once the writes queued before the close are done.
+ */
+@Slf4j
+final class WreckIndex
+{
+    static final File DEFAULT_FILE = new File(RuneLite.RUNELITE_DIR, "shipwreck-salvaging/wrecks.dat");
+
+    static final int SALVAGEABLE = 0;
+    static final int DEPLETED = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 24;
+    private static final int MAGIC = 0x53575849;
+    private static final int VERSION = 1;
+    private static final int MIN_CAPACITY = 256;
+    private static final int MIN_REGIONS = 64;
+    private static final int FREE = -1;
+    private static final int TYPE_COUNT = ShipwreckType.values().length;
+
+    // Header layout
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_RECORD_SIZE = 6;
+    private static final int HEADER_COUNT = 8;
+
+    // Record layout
+    private static final int RECORD_POINT = 0;
+    private static final int RECORD_TYPE = 4;
+    private static final int RECORD_STATE = 5;
+    private static final int RECORD_LAST_SEEN = 8;
+    private static final int RECORD_LAST_DEPLETED = 16;
+
+    private final File file;
+
+    // In-memory records by slot, only touched by the client thread
+    private boolean open;
+    // Whether open() was called without a close() since, the records may still be loading
+    private boolean requested;
+    // Bumped by every open and close, so a load that finishes after its close is dropped
+    private int generation;
+    private int count;
+    private int[] points = new int[0];
+    private byte[] types = new byte[0];
+    private byte[] states = new byte[0];
+    private long[] lastSeen = new long[0];
+    private long[] lastDepleted = new long[0];
+    // Open addressing table from region id to the first slot in the region, so lookups allocate nothing
+    private int[] regionIds = newRegionTable(MIN_REGIONS);
+    private int[] regionHeads = new int[MIN_REGIONS];
+    private int regionCount;
+    // Next slot in the same region, -1 ending the chain
+    private int[] nextInRegion = new int[0];
+
+    // Slots changed since the last flush
+    private boolean[] dirty = new boolean[0];
+    private int[] dirtySlots = new int[0];
+    private int dirtyCount;
+
+    // Only touched by the writer thread
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private int capacity;
+
+    // A single thread, ended while idle, so file operations of one open and the next never overlap
+    private final ThreadPoolExecutor writer;
+
+    WreckIndex(File file)
+    {
+        this.file = file;
+        writer = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable ->
+        {
+            Thread thread = new Thread(runnable, "shipwreck-salvaging-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.allowCoreThreadTimeOut(true);
+    }
+
+    boolean isOpen()
+    {
+        return open;
+    }
+
+    /**
+     * Has the writer thread map the file and read its records, starting an
+     * empty index if the file is missing or not one this version wrote. The
+     * records are handed to {@code clientThread}, which takes them over and
+     * then runs {@code onOpen}; until then the index stays closed.
+     */
+    void open(Executor clientThread, Runnable onOpen)
+    {
+        if (requested)
+        {
+            return;
+        }
+
+        requested = true;
+        int opened = ++generation;
+        clearRecords();
+        writer.execute(() ->
+        {
+            ByteBuffer records;
+            try
+            {
+                records = load();
+            }
+            catch (IOException | RuntimeException e)
+            {
+                log.warn("Unable to open the shipwreck index {}", file, e);
+                clientThread.execute(() -> loadFailed(opened));
+                return;
+            }
+            clientThread.execute(() -> publish(opened, records, onOpen));
+        });
+    }
+
+    private void loadFailed(int opened)
+    {
+        // Let a later open try again, unless a close or another open came first
+        if (generation == opened)
+        {
+            requested = false;
+        }
+    }
+
+    private void publish(int opened, ByteBuffer records, Runnable onOpen)
+    {
+        if (generation != opened)
+        {
+            // Closed while loading, the close already queued the file to be released
+            return;
+        }
+
+        int stored = records.remaining() / RECORD_SIZE;
+        ensureSlots(stored);
+        for (int slot = 0; slot < stored; slot++)
+        {
+            int offset = slot * RECORD_SIZE;
+            points[slot] = records.getInt(offset + RECORD_POINT);
+            types[slot] = records.get(offset + RECORD_TYPE);
+            states[slot] = records.get(offset + RECORD_STATE);
+            lastSeen[slot] = records.getLong(offset + RECORD_LAST_SEEN);
+            lastDepleted[slot] = records.getLong(offset + RECORD_LAST_DEPLETED);
+            link(slot);
+        }
+        count = stored;
+        open = true;
+        log.debug("Loaded {} known shipwrecks from {}", count, file);
+        onOpen.run();
+    }
+
+    /**
+     * Opens and maps the file on the writer thread, returning a copy of its valid records.
+     */
+    private ByteBuffer load() throws IOException
+    {
+        try
+        {
+            file.getParentFile().mkdirs();
+            channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return readRecords();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            closeFile();
+            throw e;
+        }
+    }
+
+    private ByteBuffer readRecords() throws IOException
+    {
+        // The header is read before anything is mapped, as a mapped file cannot be truncated everywhere
+        long size = channel.size();
+        int stored = 0;
+        if (size >= HEADER_SIZE)
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0)
+            {
+                // Keep reading until the header is complete
+            }
+
+            if (header.getInt(HEADER_MAGIC) == MAGIC && header.getShort(HEADER_VERSION) == VERSION
+                    && header.getShort(HEADER_RECORD_SIZE) == RECORD_SIZE)
+            {
+                long fileRecords = (size - HEADER_SIZE) / RECORD_SIZE;
+                stored = (int) Math.max(0, Math.min(header.getInt(HEADER_COUNT), fileRecords));
+            }
+            else
+            {
+                log.warn("Shipwreck index {} is not in a known format, starting a new one", file);
+            }
+        }
+
+        if (stored == 0)
+        {
+            channel.truncate(0);
+            remap(MIN_CAPACITY);
+            mapped.putInt(HEADER_MAGIC, MAGIC);
+            mapped.putShort(HEADER_VERSION, (short) VERSION);
+            mapped.putShort(HEADER_RECORD_SIZE, (short) RECORD_SIZE);
+            mapped.putInt(HEADER_COUNT, 0);
+            return ByteBuffer.allocate(0);
+        }
+
+        remap(stored);
+        int kept = 0;
+        int dropped = 0;
+        for (int record = 0; record < stored; record++)
+        {
+            int offset = HEADER_SIZE + record * RECORD_SIZE;
+            byte type = mapped.get(offset + RECORD_TYPE);
+            byte state = mapped.get(offset + RECORD_STATE);
+            if (type < 0 || type >= TYPE_COUNT || (state != SALVAGEABLE && state != DEPLETED))
+            {
+                dropped++;
+                continue;
+            }
+
+            if (dropped > 0)
+            {
+                // Close the gap so the slot of a record stays its place in the file
+                ByteBuffer target = mapped.duplicate();
+                target.position(HEADER_SIZE + kept * RECORD_SIZE);
+                ByteBuffer source = mapped.duplicate();
+                source.position(offset).limit(offset + RECORD_SIZE);
+                target.put(source);
+            }
+            kept++;
+        }
+
+        if (dropped > 0)
+        {
+            log.warn("Dropped {} corrupt records from the shipwreck index {}", dropped, file);
+            mapped.putInt(HEADER_COUNT, kept);
+            mapped.force();
+        }
+
+        ByteBuffer records = ByteBuffer.allocate(kept * RECORD_SIZE);
+        ByteBuffer source = mapped.duplicate();
+        source.position(HEADER_SIZE).limit(HEADER_SIZE + kept * RECORD_SIZE);
+        records.put(source);
+        records.flip();
+        return records;
+    }
+
+    /**
+     * Hands the changed records to the writer thread and has it release the
+     * file once they are written, without waiting for either.
+     */
+    void close()
+    {
+        if (!requested)
+        {
+            return;
+        }
+
+        flush();
+        requested = false;
+        open = false;
+        generation++;
+        clearRecords();
+        writer.execute(this::closeFile);
+    }
+
+    /**
+     * Waits until the writer thread has run everything handed to it so far.
+     */
+    void awaitWriter() throws InterruptedException, ExecutionException
+    {
+        writer.submit(() -> { }).get();
+    }
+
+    private void closeFile()
+    {
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to close the shipwreck index {}", file, e);
+            }
+        }
+        channel = null;
+        mapped = null;
+        capacity = 0;
+    }
+
+    private void clearRecords()
+    {
+        Arrays.fill(dirty, false);
+        dirtyCount = 0;
+        count = 0;
+        Arrays.fill(regionIds, FREE);
+        regionCount = 0;
+    }
+
+    /**
+     * Records a sighting of the wreck with the given object id at the point.
+     * Returns the slot of the wreck, or -1 if the index is not open.
+     */
+    int record(int objectId, WorldPoint location, long now)
+    {
+        ShipwreckType type = ShipwreckType.forObjectId(objectId);
+        if (!open || type == null)
+        {
+            return -1;
+        }
+
+        int point = pack(location);
+        int slot = find(point);
+        boolean depleted = ShipwreckType.isDepleted(objectId);
+        if (slot < 0)
+        {
+            slot = count;
+            ensureSlots(count + 1);
+            points[slot] = point;
+            lastDepleted[slot] = 0;
+            states[slot] = SALVAGEABLE;
+            link(slot);
+            count++;
+        }
+
+        if (depleted && states[slot] != DEPLETED)
+        {
+            lastDepleted[slot] = now;
+        }
+        types[slot] = (byte) type.ordinal();
+        states[slot] = (byte) (depleted ? DEPLETED : SALVAGEABLE);
+        lastSeen[slot] = now;
+
+        if (!dirty[slot])
+        {
+            dirty[slot] = true;
+            dirtySlots[dirtyCount++] = slot;
+        }
+        return slot;
+    }
+
+    /**
+     * Slot of the wreck at the point, or -1 if none was seen there.
+     */
+    int find(WorldPoint location)
+    {
+        return find(pack(location));
+    }
+
+    private int find(int point)
+    {
+        for (int slot = firstInRegion(regionOf(point)); slot >= 0; slot = nextInRegion[slot])
+        {
+            if (points[slot] == point)
+            {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * First slot in the region with the given id, or -1; follow with {@link #nextInRegion(int)}.
+     */
+    int firstInRegion(int regionId)
+    {
+        int entry = regionEntry(regionIds, regionId);
+        return regionIds[entry] == FREE ? -1 : regionHeads[entry];
+    }
+
+    int nextInRegion(int slot)
+    {
+        return nextInRegion[slot];
+    }
+
+    private void link(int slot)
+    {
+        int region = regionOf(points[slot]);
+        int entry = regionEntry(regionIds, region);
+        if (regionIds[entry] == FREE)
+        {
+            if ((regionCount + 1) * 2 > regionIds.length)
+            {
+                growRegions();
+                entry = regionEntry(regionIds, region);
+            }
+            regionIds[entry] = region;
+            regionCount++;
+            nextInRegion[slot] = -1;
+        }
+        else
+        {
+            nextInRegion[slot] = regionHeads[entry];
+        }
+        regionHeads[entry] = slot;
+    }
+
+    private void growRegions()
+    {
+        int[] oldIds = regionIds;
+        int[] oldHeads = regionHeads;
+        regionIds = newRegionTable(oldIds.length * 2);
+        regionHeads = new int[oldIds.length * 2];
+        for (int i = 0; i < oldIds.length; i++)
+        {
+            if (oldIds[i] != FREE)
+            {
+                int entry = regionEntry(regionIds, oldIds[i]);
+                regionIds[entry] = oldIds[i];
+                regionHeads[entry] = oldHeads[i];
+            }
+        }
+    }
+
+    /**
+     * Entry holding the region in the table, or the free entry where it would go.
+     */
+    private static int regionEntry(int[] table, int regionId)
+    {
+        int mask = table.length - 1;
+        int entry = (regionId * 0x9E3779B1 >>> 16) & mask;
+        while (table[entry] != FREE && table[entry] != regionId)
+        {
+            entry = (entry + 1) & mask;
+        }
+        return entry;
+    }
+
+    private static int[] newRegionTable(int size)
+    {
+        int[] table = new int[size];
+        Arrays.fill(table, FREE);
+        return table;
+    }
+
+    private void ensureSlots(int needed)
+    {
+        if (points.length >= needed)
+        {
+            return;
+        }
+
+        int length = Math.max(needed, Math.max(MIN_CAPACITY, points.length * 2));
+        points = Arrays.copyOf(points, length);
+        types = Arrays.copyOf(types, length);
+        states = Arrays.copyOf(states, length);
+        lastSeen = Arrays.copyOf(lastSeen, length);
+        lastDepleted = Arrays.copyOf(lastDepleted, length);
+        nextInRegion = Arrays.copyOf(nextInRegion, length);
+        dirty = Arrays.copyOf(dirty, length);
+        dirtySlots = Arrays.copyOf(dirtySlots, length);
+    }
+
+    /**
+     * Copies the records changed since the last flush into one batch for the writer thread.
+     */
+    void flush()
+    {
+        if (!open || dirtyCount == 0)
+        {
+            return;
+        }
+
+        int[] slots = Arrays.copyOf(dirtySlots, dirtyCount);
+        ByteBuffer records = ByteBuffer.allocate(dirtyCount * RECORD_SIZE);
+        for (int slot : slots)
+        {
+            int offset = records.position();
+            records.putInt(offset + RECORD_POINT, points[slot]);
+            records.put(offset + RECORD_TYPE, types[slot]);
+            records.put(offset + RECORD_STATE, states[slot]);
+            records.putLong(offset + RECORD_LAST_SEEN, lastSeen[slot]);
+            records.putLong(offset + RECORD_LAST_DEPLETED, lastDepleted[slot]);
+            records.position(offset + RECORD_SIZE);
+            dirty[slot] = false;
+        }
+        dirtyCount = 0;
+
+        int total = count;
+        writer.execute(() -> write(total, slots, records.array()));
+    }
+
+    private void write(int total, int[] slots, byte[] records)
+    {
+        try
+        {
+            if (total > capacity)
+            {
+                remap(Math.max(total, capacity * 2));
+            }
+
+            for (int i = 0; i < slots.length; i++)
+            {
+                ByteBuffer target = mapped.duplicate();
+                target.position(HEADER_SIZE + slots[i] * RECORD_SIZE);
+                target.put(records, i * RECORD_SIZE, RECORD_SIZE);
+            }
+            mapped.putInt(HEADER_COUNT, total);
+            mapped.force();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            log.warn("Unable to write {} shipwrecks to the index {}", slots.length, file, e);
+        }
+    }
+
+    /**
+     * Maps the file with room for at least the given number of records, growing it as needed.
+     */
+    private void remap(int records) throws IOException
+    {
+        int rounded = Math.max(MIN_CAPACITY, Integer.highestOneBit(records - 1) << 1);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) rounded * RECORD_SIZE);
+        capacity = rounded;
+    }
+
+    int getCount()
+    {
+        return count;
+    }
+
+    WorldPoint getLocation(int slot)
+    {
+        return new WorldPoint(getX(slot), getY(slot), getPlane(slot));
+    }
+
+    int getX(int slot)
+    {
+        return points[slot] & 0x7FFF;
+    }
+
+    int getY(int slot)
+    {
+        return (points[slot] >>> 15) & 0x7FFF;
+    }
+
+    int getPlane(int slot)
+    {
+        return points[slot] >>> 30;
+    }
+
+    ShipwreckType getType(int slot)
+    {
+        return ShipwreckType.byOrdinal(types[slot]);
+    }
+
+    boolean isDepleted(int slot)
+    {
+        return states[slot] == DEPLETED;
+    }
+
+    long getLastSeen(int slot)
+    {
+        return lastSeen[slot];
+    }
+
+    /**
+     * When the wreck was last seen turning depleted, or 0 if it never was.
+     */
+    long getLastDepleted(int slot)
+    {
+        return lastDepleted[slot];
+    }
+
+    static int regionOf(WorldPoint location)
+    {
+        return regionOf(pack(location));
+    }
+
+    private static int regionOf(int point)
+    {
+        return regionId((point & 0x7FFF) >> 6, ((point >>> 15) & 0x7FFF) >> 6);
+    }
+
+    /**
+     * Id of the 64x64 tile region at the given region coordinates, as the client numbers them.
+     */
+    static int regionId(int regionX, int regionY)
+    {
+        return regionX << 8 | regionY;
+    }
+
+    private static int pack(WorldPoint location)
+    {
+        return location.getPlane() << 30 | location.getY() << 15 | location.getX();
+    }
+}
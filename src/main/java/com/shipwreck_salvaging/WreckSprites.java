@@ -0,0 +1,88 @@
+package com.shipwrecksalvaging;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Map icons of the shipwrecks, one per type and state, each drawn once on
+ * first use and reused for every wreck and frame after that. Salvageable
+ * wrecks are a dot in the color of their type, depleted ones a ring of it.
+ */
+final class WreckSprites
+{
+    // Color per ShipwreckType ordinal
+    private static final Color[] TYPE_COLORS = {
+            new Color(0, 255, 255),
+            new Color(0, 200, 83),
+            new Color(41, 121, 255),
+            new Color(255, 214, 0),
+            new Color(255, 61, 0),
+            new Color(213, 0, 249),
+            new Color(255, 145, 0),
+            new Color(255, 255, 255),
+    };
+    private static final Color OUTLINE = Color.BLACK;
+
+    private final int size;
+    private final BufferedImage[] sprites = new BufferedImage[TYPE_COLORS.length * 2];
+
+    WreckSprites(int size)
+    {
+        this.size = size;
+    }
+
+    BufferedImage get(ShipwreckType type, boolean depleted)
+    {
+        int index = type.ordinal() * 2 + (depleted ? 1 : 0);
+        BufferedImage sprite = sprites[index];
+        if (sprite == null)
+        {
+            sprite = draw(TYPE_COLORS[type.ordinal()], depleted);
+            sprites[index] = sprite;
+        }
+        return sprite;
+    }
+
+    private BufferedImage draw(Color color, boolean depleted)
+    {
+        BufferedImage sprite = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = sprite.createGraphics();
+        try
+        {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            if (depleted)
+            {
+                // The outline is the ring drawn one pixel wider on each side, under it
+                int ring = Math.max(2, size / 4);
+                int inset = ring / 2 + 1;
+                int diameter = size - 2 * inset - 1;
+                graphics.setStroke(new BasicStroke(ring + 2));
+                graphics.setColor(OUTLINE);
+                graphics.drawOval(inset, inset, diameter, diameter);
+                graphics.setStroke(new BasicStroke(ring));
+                graphics.setColor(color);
+                graphics.drawOval(inset, inset, diameter, diameter);
+            }
+            else
+            {
+                graphics.setColor(color);
+                graphics.fillOval(0, 0, size - 1, size - 1);
+                graphics.setColor(OUTLINE);
+                graphics.drawOval(0, 0, size - 1, size - 1);
+            }
+        }
+        finally
+        {
+            graphics.dispose();
+        }
+        return sprite;
+    }
+
+    int getSize()
+    {
+        return size;
+    }
+}
@@ -0,0 +1,112 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+
+/**
+ * Pixel-exact comparison of rendered images against PNGs checked in under
+ * {@code src/test/resources/golden}.
+ * <p>
+ * Run the tests with {@code -PgoldenUpdate} to record the current output as
+ * the new goldens. On a mismatch the actual image and a diff mask are written
+ * to {@code build/golden} for inspection.
+ */
+final class GoldenImages
+{
+    private static final File GOLDEN_DIR = new File("src/test/resources/golden");
+    private static final File FAILURE_DIR = new File("build/golden");
+    private static final boolean UPDATE = Boolean.getBoolean("golden.update");
+
+    private GoldenImages()
+    {
+    }
+
+    static void assertMatches(String name, BufferedImage actual) throws IOException
+    {
+        File golden = new File(GOLDEN_DIR, name + ".png");
+        if (UPDATE)
+        {
+            GOLDEN_DIR.mkdirs();
+            ImageIO.write(actual, "png", golden);
+            return;
+        }
+
+        if (!golden.exists())
+        {
+            write(actual, name + ".actual.png");
+            fail("No golden image " + golden + ", record one with -PgoldenUpdate");
+        }
+
+        BufferedImage expected = ImageIO.read(golden);
+        assertEquals(name + " width", expected.getWidth(), actual.getWidth());
+        assertEquals(name + " height", expected.getHeight(), actual.getHeight());
+
+        int differences = countDifferences(expected, actual, 0, name);
+        if (differences > 0)
+        {
+            write(actual, name + ".actual.png");
+            fail(name + " differs from its golden image in " + differences + " pixels, see " + FAILURE_DIR);
+        }
+    }
+
+    /**
+     * Asserts two renders are the same to within {@code tolerance} per colour channel.
+     */
+    static void assertSame(String name, BufferedImage expected, BufferedImage actual, int tolerance) throws IOException
+    {
+        int differences = countDifferences(expected, actual, tolerance, name);
+        if (differences > 0)
+        {
+            write(expected, name + ".expected.png");
+            write(actual, name + ".actual.png");
+            fail(name + " renders differ in " + differences + " pixels, see " + FAILURE_DIR);
+        }
+    }
+
+    private static int countDifferences(BufferedImage expected, BufferedImage actual, int tolerance, String name)
+            throws IOException
+    {
+        int width = expected.getWidth();
+        int height = expected.getHeight();
+        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int differences = 0;
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                if (channelDistance(expected.getRGB(x, y), actual.getRGB(x, y)) > tolerance)
+                {
+                    diff.setRGB(x, y, 0xFFFFFF);
+                    differences++;
+                }
+            }
+        }
+
+        if (differences > 0)
+        {
+            write(diff, name + ".diff.png");
+        }
+        return differences;
+    }
+
+    private static int channelDistance(int a, int b)
+    {
+        int distance = 0;
+        for (int shift = 0; shift < 32; shift += 8)
+        {
+            distance = Math.max(distance, Math.abs(((a >>> shift) & 0xFF) - ((b >>> shift) & 0xFF)));
+        }
+        return distance;
+    }
+
+    private static void write(BufferedImage image, String fileName) throws IOException
+    {
+        FAILURE_DIR.mkdirs();
+        ImageIO.write(image, "png", new File(FAILURE_DIR, fileName));
+    }
+}
@@ -0,0 +1,84 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class HullCoverageTest
+{
+    private static final int WRECK_X = 50;
+    private static final int WRECK_Y = 50;
+    private static final int ORIGIN = SalvageRangeGrid.pack(WRECK_X, WRECK_Y, 0);
+    private static final int RANGE_MIN_X = WRECK_X + SalvageRangeGrid.RANGE_MIN_OFFSET;
+    private static final int RANGE_MAX_X = WRECK_X + SalvageRangeGrid.RANGE_MAX_OFFSET;
+
+    @Test
+    public void hullInsideRangeIsFullyInRange()
+    {
+        assertEquals(HullCoverage.FULLY_IN_RANGE, classify(RANGE_MIN_X, WRECK_Y, 3, 4));
+        assertEquals(HullCoverage.FULLY_IN_RANGE, classify(RANGE_MAX_X - 2, WRECK_Y, 3, 4));
+    }
+
+    @Test
+    public void hullAcrossRangeBorderIsPartlyInRange()
+    {
+        assertEquals(HullCoverage.PARTLY_IN_RANGE, classify(RANGE_MIN_X - 1, WRECK_Y, 3, 4));
+        assertEquals(HullCoverage.PARTLY_IN_RANGE, classify(RANGE_MAX_X - 1, WRECK_Y, 3, 4));
+        assertEquals(HullCoverage.PARTLY_IN_RANGE, classify(RANGE_MIN_X - 2, RANGE_MIN_X - 2, 3, 3));
+    }
+
+    @Test
+    public void hullOutsideRangeIsNotInRange()
+    {
+        assertEquals(HullCoverage.NOT_IN_RANGE, classify(RANGE_MAX_X + 1, WRECK_Y, 3, 4));
+        assertEquals(HullCoverage.NOT_IN_RANGE, classify(RANGE_MIN_X - 3, WRECK_Y, 3, 4));
+        assertEquals(HullCoverage.NOT_IN_RANGE, classify(WRECK_X, RANGE_MAX_X + 1, 1, 1));
+    }
+
+    @Test
+    public void hullMatchesTileByTileCheck()
+    {
+        assertMatchesTileByTile(1, 1);
+        assertMatchesTileByTile(8, 5);
+        assertMatchesTileByTile(12, 3);
+        assertMatchesTileByTile(3, 11);
+    }
+
+    @Test
+    public void hullLargerThanRangeIsPartlyInRange()
+    {
+        assertEquals(HullCoverage.PARTLY_IN_RANGE, classify(RANGE_MIN_X, WRECK_Y, RANGE_MAX_X - RANGE_MIN_X + 2, 2));
+    }
+
+    private static void assertMatchesTileByTile(int width, int height)
+    {
+        for (int hullY = RANGE_MIN_X - 10 - height; hullY <= RANGE_MAX_X + 2; hullY++)
+        {
+            for (int hullX = RANGE_MIN_X - 10 - width; hullX <= RANGE_MAX_X + 2; hullX++)
+            {
+                int covered = 0;
+                for (int dy = 0; dy < height; dy++)
+                {
+                    for (int dx = 0; dx < width; dx++)
+                    {
+                        int x = hullX + dx;
+                        int y = hullY + dy;
+                        if (x >= RANGE_MIN_X && x <= RANGE_MAX_X && y >= RANGE_MIN_X && y <= RANGE_MAX_X)
+                        {
+                            covered++;
+                        }
+                    }
+                }
+                int expected = covered == width * height ? HullCoverage.FULLY_IN_RANGE
+                        : covered > 0 ? HullCoverage.PARTLY_IN_RANGE : HullCoverage.NOT_IN_RANGE;
+                assertEquals("Hull " + width + "x" + height + " at " + hullX + "," + hullY, expected,
+                        classify(hullX, hullY, width, height));
+            }
+        }
+    }
+
+    private static int classify(int hullX, int hullY, int width, int height)
+    {
+        return HullCoverage.classify(hullX, hullY, hullX + width - 1, hullY + height - 1, ORIGIN);
+    }
+}
@@ -0,0 +1,247 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Renders fixed scenes through the plugin and overlay and compares them with
+ * golden images, so render changes can be shown to leave the output alone.
+ */
+public class OverlayGoldenTest
+{
+    private static final int SMALL_SHIPWRECK = 60464;
+    private static final int SMALL_SHIPWRECK_DEPLETED = 60465;
+    private static final int LARGE_SHIPWRECK = 60470;
+
+    private PluginFixture fixture;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException
+    {
+        fixture = new PluginFixture();
+    }
+
+    @Test
+    public void singleShipwreck() throws IOException
+    {
+        fixture.spawnShipwreck(SMALL_SHIPWRECK, 50, 48);
+        GoldenImages.assertMatches("single-shipwreck", fixture.render());
+    }
+
+    @Test
+    public void overlappingShipwrecks() throws IOException
+    {
+        spawnOverlappingShipwrecks();
+        GoldenImages.assertMatches("overlapping-shipwrecks", fixture.render());
+    }
+
+    @Test
+    public void overlappingShipwrecksWithMergedOutlines() throws IOException, ReflectiveOperationException
+    {
+        fixture.setConfig("mergeOutlines", true);
+        fixture.applyConfig();
+        spawnOverlappingShipwrecks();
+        GoldenImages.assertMatches("overlapping-shipwrecks-merged-outlines", fixture.render());
+    }
+
+    @Test
+    public void depletedShipwreck() throws IOException
+    {
+        fixture.spawnShipwreck(SMALL_SHIPWRECK_DEPLETED, 50, 48);
+        GoldenImages.assertMatches("depleted-shipwreck", fixture.render());
+    }
+
+    @Test
+    public void npcMarkers() throws IOException
+    {
+        fixture.spawnNpc(15186, 48, 46);
+        fixture.spawnNpc(15187, 52, 46);
+        fixture.spawnNpc(15188, 56, 46);
+        fixture.tick();
+        GoldenImages.assertMatches("npc-markers", fixture.render());
+    }
+
+    @Test
+    public void slopedTerrain() throws IOException
+    {
+        for (int x = 0; x <= 104; x++)
+        {
+            for (int y = 0; y <= 104; y++)
+            {
+                fixture.setTileHeight(0, x, y, -((x * 37 + y * 53) % 160));
+            }
+        }
+        spawnOverlappingShipwrecks();
+        GoldenImages.assertMatches("sloped-terrain", fixture.render());
+    }
+
+    @Test
+    public void overlapHeatmap() throws IOException, ReflectiveOperationException
+    {
+        fixture.setConfig("overlapHeatmap", true);
+        fixture.applyConfig();
+        spawnOverlappingShipwrecks();
+        fixture.spawnShipwreck(SMALL_SHIPWRECK, 54, 56);
+        GoldenImages.assertMatches("overlap-heatmap", fixture.render());
+    }
+
+    @Test
+    public void heatmapMatchesOverlapUpToTwoRanges() throws IOException, ReflectiveOperationException
+    {
+        spawnOverlappingShipwrecks();
+        BufferedImage overlap = fixture.render();
+
+        fixture.setConfig("overlapHeatmap", true);
+        fixture.applyConfig();
+        GoldenImages.assertSame("heatmap-two-ranges", overlap, fixture.render(), 0);
+    }
+
+    @Test
+    public void disabledTypeIsHidden() throws IOException, ReflectiveOperationException
+    {
+        fixture.setConfig("showSmallShipwreck", false);
+        fixture.applyConfig();
+        spawnOverlappingShipwrecks();
+        BufferedImage filtered = fixture.render();
+
+        PluginFixture expected = new PluginFixture();
+        expected.spawnShipwreck(LARGE_SHIPWRECK, 56, 52);
+        GoldenImages.assertSame("disabled-type", expected.render(), filtered, 0);
+    }
+
+    @Test
+    public void enablingTypeShowsWrecksSpawnedWhileDisabled() throws IOException, ReflectiveOperationException
+    {
+        fixture.setConfig("showSmallShipwreck", false);
+        fixture.applyConfig();
+        spawnOverlappingShipwrecks();
+        fixture.render();
+        fixture.setConfig("showSmallShipwreck", true);
+        fixture.applyConfig();
+
+        PluginFixture expected = new PluginFixture();
+        expected.spawnShipwreck(SMALL_SHIPWRECK, 50, 48);
+        expected.spawnShipwreck(LARGE_SHIPWRECK, 56, 52);
+        GoldenImages.assertSame("enabled-type", expected.render(), fixture.render(), 0);
+    }
+
+    @Test
+    public void loginScanFindsWrecksSpawnedUnseen() throws IOException, ReflectiveOperationException
+    {
+        fixture.place(fixture.createObject(SMALL_SHIPWRECK, 50, 48));
+        fixture.place(fixture.createObject(LARGE_SHIPWRECK, 56, 52));
+        assertTrue("Wrecks were drawn without a spawn event or scan", isBlank(fixture.render()));
+        fixture.setGameState(GameState.LOGGED_IN);
+
+        PluginFixture expected = new PluginFixture();
+        expected.spawnShipwreck(SMALL_SHIPWRECK, 50, 48);
+        expected.spawnShipwreck(LARGE_SHIPWRECK, 56, 52);
+        GoldenImages.assertSame("scene-scan", expected.render(), fixture.render(), 0);
+    }
+
+    @Test
+    public void despawnMatchesNeverSpawned() throws IOException, ReflectiveOperationException
+    {
+        GameObject removed = fixture.spawnShipwreck(SMALL_SHIPWRECK, 50, 48);
+        fixture.spawnShipwreck(LARGE_SHIPWRECK, 56, 52);
+        fixture.render();
+        fixture.despawn(removed);
+
+        PluginFixture expected = new PluginFixture();
+        expected.spawnShipwreck(LARGE_SHIPWRECK, 56, 52);
+        GoldenImages.assertSame("despawn", expected.render(), fixture.render(), 0);
+    }
+
+    @Test
+    public void wreckOutsideSceneDrawsTheRangeInside() throws ReflectiveOperationException
+    {
+        // Looking at the west edge of the scene, where the wreck's range reaches in from outside
+        fixture.setCamera(6 * 128, 30 * 128, -1400, 320, 0);
+        fixture.spawn(fixture.createWorldObject(SMALL_SHIPWRECK, PluginFixture.BASE_X - 3, PluginFixture.BASE_Y + 40, 0));
+        assertFalse("The range of a wreck outside the scene was not drawn", isBlank(fixture.render()));
+    }
+
+    @Test
+    public void sceneReloadClearsOverlay()
+    {
+        spawnOverlappingShipwrecks();
+        fixture.render();
+        fixture.setGameState(GameState.LOADING);
+        fixture.setGameState(GameState.LOGGED_IN);
+        assertTrue("Ranges were drawn after the scene reloaded", isBlank(fixture.render()));
+    }
+
+    @Test
+    public void cachedLayerMatchesDirectRender() throws IOException, ReflectiveOperationException
+    {
+        spawnOverlappingShipwrecks();
+        fixture.spawnShipwreck(SMALL_SHIPWRECK_DEPLETED, 40, 40);
+        BufferedImage direct = fixture.render();
+
+        fixture.setConfig("cacheRangeLayer", true);
+        fixture.applyConfig();
+        fixture.render();
+        // The second frame is drawn from the cached image
+        GoldenImages.assertSame("cached-layer", direct, fixture.render(), 0);
+    }
+
+    @Test
+    public void backgroundBuildMatchesInlineBuild() throws IOException, ReflectiveOperationException, InterruptedException
+    {
+        GeometryWorker worker = fixture.startGeometryWorker();
+        try
+        {
+            spawnOverlappingShipwrecks();
+            fixture.spawnShipwreck(SMALL_SHIPWRECK_DEPLETED, 40, 40);
+            fixture.tick();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            int previous = worker.getGeometry().getBuildCount();
+            fixture.plugin.getRangeGeometry();
+            while (worker.getGeometry().getBuildCount() == previous && System.nanoTime() < deadline)
+            {
+                Thread.sleep(1);
+            }
+            assertTrue("The worker did not publish a geometry", worker.getGeometry().getBuildCount() > previous);
+
+            PluginFixture expected = new PluginFixture();
+            expected.spawnShipwreck(SMALL_SHIPWRECK, 50, 48);
+            expected.spawnShipwreck(LARGE_SHIPWRECK, 56, 52);
+            expected.spawnShipwreck(SMALL_SHIPWRECK_DEPLETED, 40, 40);
+            GoldenImages.assertSame("background-build", expected.render(), fixture.render(), 0);
+        }
+        finally
+        {
+            worker.stop();
+        }
+    }
+
+    private void spawnOverlappingShipwrecks()
+    {
+        fixture.spawnShipwreck(SMALL_SHIPWRECK, 50, 48);
+        fixture.spawnShipwreck(LARGE_SHIPWRECK, 56, 52);
+    }
+
+    private static boolean isBlank(BufferedImage image)
+    {
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                if (image.getRGB(x, y) != 0)
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
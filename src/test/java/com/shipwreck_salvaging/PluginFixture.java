@@ -0,0 +1,522 @@
+package com.shipwrecksalvaging;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.Constants;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.IndexedObjectSet;
+import net.runelite.api.NPC;
+import net.runelite.api.Point;
+import net.runelite.api.Scene;
+import net.runelite.api.Tile;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.GameObjectDespawned;
+import net.runelite.api.events.GameObjectSpawned;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.NpcDespawned;
+import net.runelite.api.events.NpcSpawned;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.worldmap.WorldMap;
+
+/**
+ * A plugin and overlay wired to an in-memory client with a flat scene and a
+ * fixed camera, for driving the render path without a running game.
+ * <p>
+ * The client, world view, config and scene objects are proxies answering from
+ * maps of pre-boxed values, so calling them does not allocate.
+ */
+final class PluginFixture
+{
+    static final int BASE_X = 3072;
+    static final int BASE_Y = 3072;
+    static final int VIEWPORT_WIDTH = 765;
+    static final int VIEWPORT_HEIGHT = 503;
+    static final int VIEWPORT_OFFSET = 4;
+    static final int CANVAS_WIDTH = VIEWPORT_WIDTH + 2 * VIEWPORT_OFFSET;
+    static final int CANVAS_HEIGHT = VIEWPORT_HEIGHT + 2 * VIEWPORT_OFFSET;
+
+    private static final Map<Class<?>, Object> DEFAULTS = new HashMap<>();
+
+    static
+    {
+        DEFAULTS.put(boolean.class, Boolean.FALSE);
+        DEFAULTS.put(byte.class, (byte) 0);
+        DEFAULTS.put(short.class, (short) 0);
+        DEFAULTS.put(char.class, (char) 0);
+        DEFAULTS.put(int.class, 0);
+        DEFAULTS.put(long.class, 0L);
+        DEFAULTS.put(float.class, 0f);
+        DEFAULTS.put(double.class, 0d);
+    }
+
+    private final Map<String, Object> clientValues = new HashMap<>();
+    private final Map<String, Object> worldViewValues = new HashMap<>();
+    private final Map<String, Object> configValues = new HashMap<>();
+    private final List<NPC> npcs = new ArrayList<>();
+    private final Map<NPC, Map<String, Object>> npcValues = new HashMap<>();
+    private int nextNpcIndex;
+    private final Tile[][][] tiles = new Tile[Constants.MAX_Z][Constants.SCENE_SIZE][Constants.SCENE_SIZE];
+
+    final Client client;
+    final WorldView worldView;
+    final ShipwreckSalvagingConfig config;
+    final ShipwreckSalvagingPlugin plugin;
+    final ShipwreckSalvagingOverlay overlay;
+    final ShipwreckSalvagingWorldMapOverlay worldMapOverlay;
+    final ShipwreckSalvagingMinimapOverlay minimapOverlay;
+
+    PluginFixture() throws ReflectiveOperationException
+    {
+        worldView = proxy(WorldView.class, worldViewValues);
+        worldViewValues.put("getId", -1);
+        worldViewValues.put("getPlane", 0);
+        worldViewValues.put("getBaseX", BASE_X);
+        worldViewValues.put("getBaseY", BASE_Y);
+        worldViewValues.put("getSizeX", Constants.SCENE_SIZE);
+        worldViewValues.put("getSizeY", Constants.SCENE_SIZE);
+        worldViewValues.put("isTopLevel", Boolean.TRUE);
+        worldViewValues.put("getScene", proxy(Scene.class, Map.of("getTiles", tiles)));
+        worldViewValues.put("npcs", new IndexedObjectSet<NPC>()
+        {
+            @Override
+            public NPC byIndex(int index)
+            {
+                for (NPC npc : npcs)
+                {
+                    if (npc.getIndex() == index)
+                    {
+                        return npc;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public Iterator<NPC> iterator()
+            {
+                return npcs.iterator();
+            }
+        });
+        worldViewValues.put("getTileHeights", new int[Constants.MAX_Z][Constants.SCENE_SIZE + 1][Constants.SCENE_SIZE + 1]);
+        worldViewValues.put("getTileSettings", new byte[Constants.MAX_Z][Constants.SCENE_SIZE][Constants.SCENE_SIZE]);
+
+        client = proxy(Client.class, clientValues);
+        clientValues.put("getTopLevelWorldView", worldView);
+        clientValues.put("getWorldView", worldView);
+        clientValues.put("getGameState", GameState.LOGGED_IN);
+        clientValues.put("getNpcs", npcs);
+        clientValues.put("getPlane", 0);
+        clientValues.put("getViewportWidth", VIEWPORT_WIDTH);
+        clientValues.put("getViewportHeight", VIEWPORT_HEIGHT);
+        clientValues.put("getViewportXOffset", VIEWPORT_OFFSET);
+        clientValues.put("getViewportYOffset", VIEWPORT_OFFSET);
+        clientValues.put("getScale", 512);
+        clientValues.put("isClientThread", Boolean.TRUE);
+        setCamera(52 * 128, 36 * 128, -1400, 320, 0);
+
+        config = proxy(ShipwreckSalvagingConfig.class, configValues);
+
+        plugin = new ShipwreckSalvagingPlugin();
+        inject(plugin, "client", client);
+        inject(plugin, "config", config);
+
+        overlay = createOverlay(ShipwreckSalvagingOverlay.class);
+        inject(plugin, "overlay", overlay);
+        worldMapOverlay = createOverlay(ShipwreckSalvagingWorldMapOverlay.class);
+        minimapOverlay = createOverlay(ShipwreckSalvagingMinimapOverlay.class);
+
+        applyConfig();
+    }
+
+    private <T> T createOverlay(Class<T> type) throws ReflectiveOperationException
+    {
+        Constructor<T> constructor = type.getDeclaredConstructor(Client.class, ShipwreckSalvagingPlugin.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(client, plugin);
+    }
+
+    /**
+     * Opens the world map centred on the world tile, at the given pixels per
+     * tile, with the map view covering the bounds of the canvas.
+     */
+    void showWorldMap(int worldX, int worldY, float zoom, Rectangle bounds)
+    {
+        clientValues.put("getWorldMap", proxy(WorldMap.class,
+                Map.of("getWorldMapPosition", new Point(worldX, worldY), "getWorldMapZoom", zoom)));
+        clientValues.put("getWidget", proxy(Widget.class, Map.of("getBounds", bounds)));
+    }
+
+    /**
+     * Places the camera in local coordinates, with pitch and yaw in the client's angle units.
+     */
+    void setCamera(int x, int y, int z, int pitch, int yaw)
+    {
+        clientValues.put("getCameraX", x);
+        clientValues.put("getCameraY", y);
+        clientValues.put("getCameraZ", z);
+        clientValues.put("getCameraPitch", pitch);
+        clientValues.put("getCameraYaw", yaw);
+        clientValues.put("getCameraFpX", (double) x);
+        clientValues.put("getCameraFpY", (double) y);
+        clientValues.put("getCameraFpZ", (double) z);
+        clientValues.put("getCameraFpPitch", pitch * Math.PI / 1024);
+        clientValues.put("getCameraFpYaw", yaw * Math.PI / 1024);
+    }
+
+    void setScale(int scale)
+    {
+        clientValues.put("getScale", scale);
+    }
+
+    void setViewport(int x, int y, int width, int height)
+    {
+        clientValues.put("getViewportXOffset", x);
+        clientValues.put("getViewportYOffset", y);
+        clientValues.put("getViewportWidth", width);
+        clientValues.put("getViewportHeight", height);
+    }
+
+    /**
+     * Moves the loaded scene, which only affects objects and NPCs created afterwards.
+     */
+    void setScene(int baseX, int baseY, int plane)
+    {
+        worldViewValues.put("getBaseX", baseX);
+        worldViewValues.put("getBaseY", baseY);
+        setPlane(plane);
+    }
+
+    void setPlane(int plane)
+    {
+        worldViewValues.put("getPlane", plane);
+        clientValues.put("getPlane", plane);
+    }
+
+    /**
+     * Overrides a config item for the next {@link #applyConfig()}; items not set keep their defaults.
+     */
+    void setConfig(String keyName, Object value)
+    {
+        configValues.put(keyName, value);
+    }
+
+    void applyConfig() throws ReflectiveOperationException
+    {
+        inject(plugin, "renderConfig", RenderConfig.from(config));
+        Method rebuild = ShipwreckSalvagingPlugin.class.getDeclaredMethod("rebuildRangeGrid");
+        rebuild.setAccessible(true);
+        rebuild.invoke(plugin);
+    }
+
+    /**
+     * Moves geometry builds onto the plugin's background worker, as on startup.
+     * Builds otherwise run inline so that every render sees the latest geometry.
+     */
+    GeometryWorker startGeometryWorker() throws ReflectiveOperationException
+    {
+        Field field = ShipwreckSalvagingPlugin.class.getDeclaredField("geometryWorker");
+        field.setAccessible(true);
+        GeometryWorker worker = (GeometryWorker) field.get(plugin);
+        worker.start();
+        return worker;
+    }
+
+    /**
+     * Replaces the plugin's wreck index, which otherwise stays closed, with one
+     * that the test opened on a file of its own.
+     */
+    void useWreckIndex(WreckIndex wreckIndex) throws ReflectiveOperationException
+    {
+        inject(plugin, "wreckIndex", wreckIndex);
+    }
+
+    /**
+     * Gives the scene collision flags, indexed {@code [plane][sceneX][sceneY]}.
+     * Without them the collision maps are null.
+     */
+    void setCollisionFlags(int[][][] flags)
+    {
+        CollisionData[] collisionMaps = new CollisionData[flags.length];
+        for (int plane = 0; plane < flags.length; plane++)
+        {
+            collisionMaps[plane] = proxy(CollisionData.class, Map.of("getFlags", flags[plane]));
+        }
+        worldViewValues.put("getCollisionMaps", collisionMaps);
+    }
+
+    void setTileHeight(int plane, int x, int y, int height)
+    {
+        ((int[][][]) worldViewValues.get("getTileHeights"))[plane][x][y] = height;
+    }
+
+    GameObject spawnShipwreck(int objectId, int sceneX, int sceneY)
+    {
+        GameObject shipwreck = createObject(objectId, sceneX, sceneY);
+        spawn(shipwreck);
+        return shipwreck;
+    }
+
+    /**
+     * Creates a 2x2 game object at the given scene tile without spawning it.
+     */
+    GameObject createObject(int objectId, int sceneX, int sceneY)
+    {
+        return createWorldObject(objectId, baseX() + sceneX, baseY() + sceneY, plane());
+    }
+
+    GameObject createWorldObject(int objectId, int worldX, int worldY, int plane)
+    {
+        int sceneX = worldX - baseX();
+        int sceneY = worldY - baseY();
+        Map<String, Object> values = new HashMap<>();
+        values.put("getId", objectId);
+        values.put("getPlane", plane);
+        values.put("sizeX", SalvageRangeGrid.SHIPWRECK_SIZE);
+        values.put("sizeY", SalvageRangeGrid.SHIPWRECK_SIZE);
+        values.put("getWorldLocation", new WorldPoint(worldX, worldY, plane));
+        // The local location of a 2x2 object is the corner at its centre
+        values.put("getLocalLocation", new LocalPoint((sceneX + 1) << 7, (sceneY + 1) << 7, -1));
+        return proxy(GameObject.class, values);
+    }
+
+    void spawn(GameObject gameObject)
+    {
+        place(gameObject);
+        GameObjectSpawned event = new GameObjectSpawned();
+        event.setGameObject(gameObject);
+        plugin.onGameObjectSpawned(event);
+    }
+
+    /**
+     * Puts the object on its scene tile without a spawn event, as if it spawned
+     * before the plugin was listening.
+     */
+    void place(GameObject gameObject)
+    {
+        GameObject[] gameObjects = tileObjects(gameObject);
+        if (gameObjects != null)
+        {
+            for (int i = 0; i < gameObjects.length; i++)
+            {
+                if (gameObjects[i] == null)
+                {
+                    gameObjects[i] = gameObject;
+                    break;
+                }
+            }
+        }
+    }
+
+    void despawn(GameObject gameObject)
+    {
+        GameObject[] gameObjects = tileObjects(gameObject);
+        if (gameObjects != null)
+        {
+            for (int i = 0; i < gameObjects.length; i++)
+            {
+                if (gameObjects[i] == gameObject)
+                {
+                    gameObjects[i] = null;
+                }
+            }
+        }
+
+        GameObjectDespawned event = new GameObjectDespawned();
+        event.setGameObject(gameObject);
+        plugin.onGameObjectDespawned(event);
+    }
+
+    /**
+     * Fires a game state change. Entering LOADING empties the scene, as the
+     * client does before it spawns the objects of the new one.
+     */
+    void setGameState(GameState gameState)
+    {
+        if (gameState == GameState.LOADING)
+        {
+            for (Tile[][] plane : tiles)
+            {
+                for (Tile[] column : plane)
+                {
+                    Arrays.fill(column, null);
+                }
+            }
+        }
+        clientValues.put("getGameState", gameState);
+        GameStateChanged event = new GameStateChanged();
+        event.setGameState(gameState);
+        plugin.onGameStateChanged(event);
+    }
+
+    NPC spawnNpc(int npcId, int sceneX, int sceneY)
+    {
+        return spawnWorldNpc(npcId, nextNpcIndex, baseX() + sceneX, baseY() + sceneY, plane());
+    }
+
+    NPC spawnWorldNpc(int npcId, int index, int worldX, int worldY, int plane)
+    {
+        Map<String, Object> values = new HashMap<>();
+        values.put("getId", npcId);
+        values.put("getIndex", index);
+        values.put("getWorldView", worldView);
+        NPC npc = proxy(NPC.class, values);
+        npcValues.put(npc, values);
+        nextNpcIndex = Math.max(nextNpcIndex, index + 1);
+        moveNpc(npc, worldX, worldY, plane);
+
+        npcs.add(npc);
+        plugin.onNpcSpawned(new NpcSpawned(npc));
+        return npc;
+    }
+
+    void moveNpc(NPC npc, int worldX, int worldY, int plane)
+    {
+        Map<String, Object> values = npcValues.get(npc);
+        values.put("getWorldLocation", new WorldPoint(worldX, worldY, plane));
+        values.put("getLocalLocation", new LocalPoint(((worldX - baseX()) << 7) + 64, ((worldY - baseY()) << 7) + 64, -1));
+    }
+
+    void despawnNpc(NPC npc)
+    {
+        npcs.remove(npc);
+        npcValues.remove(npc);
+        plugin.onNpcDespawned(new NpcDespawned(npc));
+    }
+
+    void tick()
+    {
+        plugin.onGameTick(null);
+    }
+
+    /**
+     * Ticks until the distance field has spread every change, which the
+     * plugin spreads over as many ticks as its time budget needs.
+     */
+    void tickUntilSettled()
+    {
+        do
+        {
+            tick();
+        }
+        while (!plugin.getDistanceField().isSettled());
+    }
+
+    /**
+     * Fires the event the client posts before each frame, which applies queued scene changes.
+     */
+    void beforeRender()
+    {
+        plugin.onBeforeRender(null);
+    }
+
+    /**
+     * Renders one overlay frame into a fresh transparent image the size of the canvas.
+     */
+    BufferedImage render()
+    {
+        BufferedImage image = new BufferedImage(CANVAS_WIDTH, CANVAS_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        // Scene overlays are clipped to the viewport by the client's overlay renderer
+        graphics.setClip(VIEWPORT_OFFSET, VIEWPORT_OFFSET, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+        try
+        {
+            beforeRender();
+            overlay.render(graphics);
+        }
+        finally
+        {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private GameObject[] tileObjects(GameObject gameObject)
+    {
+        WorldPoint location = gameObject.getWorldLocation();
+        int sceneX = location.getX() - baseX();
+        int sceneY = location.getY() - baseY();
+        if (sceneX < 0 || sceneY < 0 || sceneX >= Constants.SCENE_SIZE || sceneY >= Constants.SCENE_SIZE)
+        {
+            return null;
+        }
+
+        Tile tile = tiles[location.getPlane()][sceneX][sceneY];
+        if (tile == null)
+        {
+            tile = proxy(Tile.class, Map.of("getGameObjects", new GameObject[5]));
+            tiles[location.getPlane()][sceneX][sceneY] = tile;
+        }
+        return tile.getGameObjects();
+    }
+
+    private int baseX()
+    {
+        return (Integer) worldViewValues.get("getBaseX");
+    }
+
+    private int baseY()
+    {
+        return (Integer) worldViewValues.get("getBaseY");
+    }
+
+    private int plane()
+    {
+        return (Integer) worldViewValues.get("getPlane");
+    }
+
+    private static void inject(Object target, String name, Object value) throws ReflectiveOperationException
+    {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static <T> T proxy(Class<T> type, Map<String, Object> values)
+    {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+        {
+            Object value = values.get(method.getName());
+            if (value != null)
+            {
+                return value;
+            }
+
+            switch (method.getName())
+            {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            }
+
+            if (method.isDefault())
+            {
+                // Config items fall back to their declared defaults
+                return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                        .unreflectSpecial(method, type)
+                        .bindTo(proxy)
+                        .invokeWithArguments(args == null ? new Object[0] : args);
+            }
+            return DEFAULTS.get(method.getReturnType());
+        }));
+    }
+}
@@ -0,0 +1,265 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import net.runelite.api.CollisionDataFlag;
+import net.runelite.api.Constants;
+import net.runelite.api.GameObject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RangeDistanceFieldTest
+{
+    private static final int SIZE = Constants.SCENE_SIZE;
+    // The flags the client gives open sea: no floor to walk on
+    private static final int WATER = CollisionDataFlag.BLOCK_MOVEMENT_FLOOR;
+    private static final int LAND = 0;
+    private static final int ROCK = CollisionDataFlag.BLOCK_MOVEMENT_FLOOR | CollisionDataFlag.BLOCK_MOVEMENT_OBJECT;
+
+    private final RangeDistanceField field = new RangeDistanceField();
+    private final SalvageRangeGrid grid = new SalvageRangeGrid();
+    private final int[][] flags = new int[SIZE][SIZE];
+
+    @Before
+    public void setUp()
+    {
+        for (int[] column : flags)
+        {
+            Arrays.fill(column, WATER);
+        }
+    }
+
+    @Test
+    public void onlyOpenWaterIsNavigable()
+    {
+        assertTrue(RangeDistanceField.isOpenWater(WATER));
+        assertFalse(RangeDistanceField.isOpenWater(LAND));
+        assertFalse(RangeDistanceField.isOpenWater(ROCK));
+        assertFalse(RangeDistanceField.isOpenWater(CollisionDataFlag.BLOCK_MOVEMENT_FULL));
+        assertFalse(RangeDistanceField.isOpenWater(WATER | CollisionDataFlag.BLOCK_MOVEMENT_FLOOR_DECORATION));
+        assertFalse(RangeDistanceField.isOpenWater(WATER | CollisionDataFlag.BLOCK_MOVEMENT_EAST));
+    }
+
+    @Test
+    public void incrementalUpdatesMatchFullSearch()
+    {
+        Random random = new Random(23);
+        int[] obstacles = {LAND, ROCK, WATER | CollisionDataFlag.BLOCK_MOVEMENT_NORTH};
+        for (int i = 0; i < 1500; i++)
+        {
+            flags[random.nextInt(SIZE)][random.nextInt(SIZE)] = obstacles[random.nextInt(obstacles.length)];
+        }
+        field.reset(flags, 0);
+
+        List<Integer> origins = new ArrayList<>();
+        for (int step = 0; step < 60; step++)
+        {
+            if (origins.isEmpty() || random.nextInt(3) > 0)
+            {
+                int origin = SalvageRangeGrid.pack(random.nextInt(SIZE), random.nextInt(SIZE), 0);
+                origins.add(origin);
+                grid.addFootprint(origin, 1);
+            }
+            else
+            {
+                grid.addFootprint(origins.remove(random.nextInt(origins.size())), -1);
+            }
+
+            field.updateSources(grid);
+            assertTrue(field.propagate(Long.MAX_VALUE));
+            assertMatchesSearch("Step " + step);
+        }
+    }
+
+    @Test
+    public void sourcesRemovedMidPropagationAreForgotten()
+    {
+        Random random = new Random(41);
+        field.reset(flags, 0);
+
+        List<Integer> origins = new ArrayList<>();
+        for (int step = 0; step < 200; step++)
+        {
+            if (origins.isEmpty() || random.nextInt(2) > 0)
+            {
+                int origin = SalvageRangeGrid.pack(random.nextInt(SIZE), random.nextInt(SIZE), 0);
+                origins.add(origin);
+                grid.addFootprint(origin, 1);
+            }
+            else
+            {
+                grid.addFootprint(origins.remove(random.nextInt(origins.size())), -1);
+            }
+
+            // Leave the spreading unfinished before the next change
+            field.updateSources(grid);
+            for (int call = random.nextInt(4); call > 0; call--)
+            {
+                field.propagate(0);
+            }
+        }
+
+        assertTrue(field.propagate(Long.MAX_VALUE));
+        assertMatchesSearch("Settled");
+    }
+
+    @Test
+    public void budgetSpreadsWorkOverCalls()
+    {
+        grid.addFootprint(SalvageRangeGrid.pack(10, 10, 0), 1);
+        field.reset(null, 0);
+        field.updateSources(grid);
+
+        int calls = 1;
+        while (!field.propagate(0))
+        {
+            calls++;
+        }
+        assertTrue("Settled in a single call", calls > 1);
+        assertTrue(field.isSettled());
+        assertMatchesSearch("Settled");
+    }
+
+    @Test
+    public void routeGoesThroughGapInLand()
+    {
+        // A strip of land along x = 39 to 40 with a single channel at y = 80, range west of it
+        for (int y = 0; y < SIZE; y++)
+        {
+            if (y != 80)
+            {
+                flags[39][y] = LAND;
+                flags[40][y] = LAND;
+            }
+        }
+        grid.addFootprint(SalvageRangeGrid.pack(20, 20, 0), 1);
+        field.reset(flags, 0);
+        field.updateSources(grid);
+        field.propagate(Long.MAX_VALUE);
+
+        int[] tiles = new int[SIZE * 2];
+        int length = field.route(60, 20, tiles);
+        assertEquals(field.getDistance(60, 20), length);
+        assertEquals(0, field.getDistance(tiles[length - 1] % SIZE, tiles[length - 1] / SIZE));
+
+        boolean throughGap = false;
+        int previous = 20 * SIZE + 60;
+        for (int i = 0; i < length; i++)
+        {
+            int x = tiles[i] % SIZE;
+            int y = tiles[i] / SIZE;
+            assertEquals("Tile " + x + "," + y + " is not open water", WATER, flags[x][y]);
+            assertTrue("Not a single move", Math.abs(x - previous % SIZE) <= 1 && Math.abs(y - previous / SIZE) <= 1);
+            throughGap |= x == 40 && y == 80;
+            previous = tiles[i];
+        }
+        assertTrue(throughGap);
+    }
+
+    @Test
+    public void noRouteWhenInRangeOrWalledOff()
+    {
+        grid.addFootprint(SalvageRangeGrid.pack(20, 20, 0), 1);
+        for (int y = 0; y < SIZE; y++)
+        {
+            flags[40][y] = ROCK;
+        }
+        field.reset(flags, 0);
+        field.updateSources(grid);
+        field.propagate(Long.MAX_VALUE);
+
+        int[] tiles = new int[SIZE * 2];
+        assertEquals(0, field.route(20, 20, tiles));
+        assertEquals(RangeDistanceField.UNREACHABLE, field.getDistance(60, 20));
+        assertEquals(0, field.route(60, 20, tiles));
+    }
+
+    @Test
+    public void pluginRouteFollowsDepletion() throws ReflectiveOperationException
+    {
+        PluginFixture fixture = new PluginFixture();
+        fixture.setCollisionFlags(new int[][][]{flags});
+        fixture.setConfig("showRangePath", true);
+        fixture.applyConfig();
+
+        GameObject shipwreck = fixture.spawnShipwreck(60464, 30, 30);
+        fixture.spawnNpc(15186, 60, 30);
+        fixture.tickUntilSettled();
+
+        RangePath rangePath = fixture.plugin.getRangePath();
+        int distance = 60 - (30 + SalvageRangeGrid.RANGE_MAX_OFFSET);
+        assertEquals(distance + 1, rangePath.getCount());
+
+        // Depleting the only wreck leaves nothing in range
+        fixture.despawn(shipwreck);
+        fixture.spawnShipwreck(60465, 30, 30);
+        fixture.tickUntilSettled();
+        assertEquals(0, rangePath.getCount());
+
+        fixture.spawnShipwreck(60464, 40, 30);
+        fixture.tickUntilSettled();
+        assertEquals(distance - 10 + 1, rangePath.getCount());
+
+        fixture.setConfig("showRangePath", false);
+        fixture.applyConfig();
+        fixture.tick();
+        assertEquals(0, rangePath.getCount());
+    }
+
+    /**
+     * Compares the field with a plain breadth-first search from the covered open tiles.
+     */
+    private void assertMatchesSearch(String message)
+    {
+        int[] expected = new int[SIZE * SIZE];
+        Arrays.fill(expected, RangeDistanceField.UNREACHABLE);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                if (flags[x][y] == WATER && grid.count(x, y, 0) > 0)
+                {
+                    expected[y * SIZE + x] = 0;
+                    queue.add(y * SIZE + x);
+                }
+            }
+        }
+        while (!queue.isEmpty())
+        {
+            int tile = queue.poll();
+            int x = tile % SIZE;
+            int y = tile / SIZE;
+            for (int dy = -1; dy <= 1; dy++)
+            {
+                for (int dx = -1; dx <= 1; dx++)
+                {
+                    int toX = x + dx;
+                    int toY = y + dy;
+                    if (toX < 0 || toY < 0 || toX >= SIZE || toY >= SIZE || flags[toX][toY] != WATER
+                            || flags[toX][y] != WATER || flags[x][toY] != WATER || expected[toY * SIZE + toX] != RangeDistanceField.UNREACHABLE)
+                    {
+                        continue;
+                    }
+                    expected[toY * SIZE + toX] = expected[tile] + 1;
+                    queue.add(toY * SIZE + toX);
+                }
+            }
+        }
+
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                assertEquals(message + ", tile " + x + "," + y, expected[y * SIZE + x], field.getDistance(x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutionException;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.ui.overlay.Overlay;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Fails when a warmed-up overlay frame allocates more than a small fixed
+ * budget, using the JVM's per-thread allocated-bytes counter.
+ */
+public class RenderAllocationTest
+{
+    // Bytes a single steady-state frame may allocate
+    private static final long FRAME_BUDGET = 256;
+    private static final int WARMUP_FRAMES = 500;
+    private static final int MEASURED_FRAMES = 200;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private PluginFixture fixture;
+    private NullGraphics2D graphics;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException
+    {
+        assertTrue("Thread allocation accounting is not supported", THREADS.isThreadAllocatedMemorySupported());
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        fixture = new PluginFixture();
+        graphics = new NullGraphics2D();
+
+        // Overlapping ranges, one depleted wreck and every kind of pivot NPC
+        fixture.spawnShipwreck(60464, 48, 48);
+        fixture.spawnShipwreck(60470, 56, 52);
+        fixture.spawnShipwreck(60476, 50, 60);
+        fixture.spawnShipwreck(60465, 40, 40);
+        fixture.spawnNpc(15186, 52, 50);
+        fixture.spawnNpc(15187, 54, 50);
+        fixture.spawnNpc(15188, 56, 50);
+        fixture.tick();
+    }
+
+    @Test
+    public void defaultConfig() throws ReflectiveOperationException
+    {
+        assertFrameWithinBudget();
+    }
+
+    @Test
+    public void mergedOutlines() throws ReflectiveOperationException
+    {
+        fixture.setConfig("mergeOutlines", true);
+        assertFrameWithinBudget();
+    }
+
+    @Test
+    public void adaptiveDetail() throws ReflectiveOperationException
+    {
+        fixture.setConfig("adaptiveDetail", true);
+        assertFrameWithinBudget();
+    }
+
+    @Test
+    public void cachedLayer() throws ReflectiveOperationException
+    {
+        fixture.setConfig("cacheRangeLayer", true);
+        assertFrameWithinBudget();
+    }
+
+    @Test
+    public void overlapHeatmap() throws ReflectiveOperationException
+    {
+        fixture.setConfig("overlapHeatmap", true);
+        assertFrameWithinBudget();
+    }
+
+    @Test
+    public void hullCoverage() throws ReflectiveOperationException
+    {
+        fixture.setConfig("showHullCoverage", true);
+        assertFrameWithinBudget();
+    }
+
+    @Test
+    public void bestPosition() throws ReflectiveOperationException
+    {
+        fixture.setConfig("showBestPosition", true);
+        assertFrameWithinBudget();
+    }
+
+    @Test
+    public void rangePath() throws ReflectiveOperationException
+    {
+        // Pull the boat out of range so that there is a route to draw
+        fixture.spawnNpc(15189, 100, 100);
+        fixture.setConfig("showRangePath", true);
+        fixture.applyConfig();
+        fixture.tickUntilSettled();
+        assertFrameWithinBudget();
+        assertTrue("No route was drawn", fixture.plugin.getRangePath().getCount() > 1);
+    }
+
+    @Test
+    public void metricsEnabled() throws ReflectiveOperationException
+    {
+        fixture.setConfig("showMetrics", true);
+        assertFrameWithinBudget();
+    }
+
+    @Test
+    public void worldMapFullOfWrecks()
+            throws IOException, ReflectiveOperationException, InterruptedException, ExecutionException
+    {
+        File file = File.createTempFile("wrecks", ".dat");
+        WreckIndex index = new WreckIndex(file);
+        try
+        {
+            index.open(Runnable::run, () -> { });
+            index.awaitWriter();
+            fixture.useWreckIndex(index);
+            // A wreck every fourth tile across a zoomed out view of 400 by 300 tiles
+            for (int x = 3000; x < 3400; x += 4)
+            {
+                for (int y = 3050; y < 3350; y += 4)
+                {
+                    index.record(60464 + (x + y) % 16, new WorldPoint(x, y, 0), 0);
+                }
+            }
+            fixture.showWorldMap(3200, 3200, 2, new Rectangle(0, 0, 800, 600));
+
+            assertFrameWithinBudget(fixture.worldMapOverlay);
+            assertTrue("Nothing was drawn", fixture.worldMapOverlay.getDrawnCount() > 7000);
+        }
+        finally
+        {
+            index.close();
+            index.awaitWriter();
+            file.delete();
+        }
+    }
+
+    private void assertFrameWithinBudget() throws ReflectiveOperationException
+    {
+        assertFrameWithinBudget(fixture.overlay);
+        assertTrue("Nothing was drawn", graphics.fills > 0);
+    }
+
+    private void assertFrameWithinBudget(Overlay overlay) throws ReflectiveOperationException
+    {
+        fixture.applyConfig();
+        fixture.tick();
+
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++)
+        {
+            overlay.render(graphics);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++)
+        {
+            long before = THREADS.getThreadAllocatedBytes(threadId);
+            overhead = Math.min(overhead, THREADS.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        long worst = 0;
+        for (int frame = 0; frame < MEASURED_FRAMES; frame++)
+        {
+            long before = THREADS.getThreadAllocatedBytes(threadId);
+            overlay.render(graphics);
+            long allocated = THREADS.getThreadAllocatedBytes(threadId) - before - overhead;
+            worst = Math.max(worst, allocated);
+        }
+
+        assertTrue("A frame allocated " + worst + " bytes, over the budget of " + FRAME_BUDGET, worst <= FRAME_BUDGET);
+    }
+}
@@ -0,0 +1,95 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import net.runelite.api.Constants;
+import org.junit.Test;
+
+public class SalvagePositionSolverTest
+{
+    private static final int SIZE = Constants.SCENE_SIZE;
+
+    private final SalvagePositionSolver solver = new SalvagePositionSolver();
+
+    @Test
+    public void coverageMatchesRangeGrid()
+    {
+        int[] origins = {
+                SalvageRangeGrid.pack(20, 20, 0),
+                SalvageRangeGrid.pack(26, 24, 0),
+                SalvageRangeGrid.pack(30, 18, 0),
+                // Clipped by the scene edge
+                SalvageRangeGrid.pack(100, 2, 0),
+                // On another plane
+                SalvageRangeGrid.pack(22, 22, 1),
+        };
+        solver.solve(origins, origins.length, 0);
+
+        SalvageRangeGrid grid = new SalvageRangeGrid();
+        int max = 0;
+        for (int origin : origins)
+        {
+            grid.addFootprint(origin, 1);
+        }
+        for (int y = 0; y < SIZE; y++)
+        {
+            for (int x = 0; x < SIZE; x++)
+            {
+                assertEquals("Coverage of " + x + "," + y, grid.count(x, y, 0), solver.getCoverage(x, y));
+                max = Math.max(max, grid.count(x, y, 0));
+            }
+        }
+        assertEquals(3, max);
+        assertEquals(max, solver.getMaxCoverage());
+    }
+
+    @Test
+    public void nearestBreaksTiesByDistance()
+    {
+        // Two separate pairs of overlapping ranges, far apart
+        int[] origins = {
+                SalvageRangeGrid.pack(10, 10, 0),
+                SalvageRangeGrid.pack(12, 10, 0),
+                SalvageRangeGrid.pack(80, 80, 0),
+                SalvageRangeGrid.pack(82, 80, 0),
+        };
+        solver.solve(origins, origins.length, 0);
+        assertEquals(2, solver.getMaxCoverage());
+
+        int nearWest = solver.nearest(0, 0);
+        assertEquals(12 + SalvageRangeGrid.RANGE_MIN_OFFSET, nearWest % SIZE);
+        assertEquals(10 + SalvageRangeGrid.RANGE_MIN_OFFSET, nearWest / SIZE);
+
+        int nearEast = solver.nearest(SIZE - 1, SIZE - 1);
+        assertEquals(80 + SalvageRangeGrid.RANGE_MAX_OFFSET, nearEast % SIZE);
+        assertEquals(80 + SalvageRangeGrid.RANGE_MAX_OFFSET, nearEast / SIZE);
+    }
+
+    @Test
+    public void noRangesHasNoPosition()
+    {
+        solver.solve(new int[0], 0, 0);
+        assertEquals(0, solver.getMaxCoverage());
+        assertEquals(-1, solver.nearest(52, 52));
+    }
+
+    @Test
+    public void rangeFeaturesWorkWithRangeOverlayHidden() throws ReflectiveOperationException
+    {
+        PluginFixture fixture = new PluginFixture();
+        fixture.setConfig("showSalvageRange", false);
+        fixture.setConfig("showBestPosition", true);
+        fixture.setConfig("showHullCoverage", true);
+        fixture.setConfig("showRangePath", true);
+        fixture.applyConfig();
+
+        fixture.spawnShipwreck(60464, 30, 30);
+        fixture.spawnNpc(15186, 60, 30);
+        fixture.tickUntilSettled();
+
+        assertTrue("No best position", fixture.plugin.getBestPosition().isPresent());
+        assertEquals(1, fixture.plugin.getHullCoverage().getCount());
+        assertTrue("No route", fixture.plugin.getRangePath().getCount() > 0);
+    }
+}
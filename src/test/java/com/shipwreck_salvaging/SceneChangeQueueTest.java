@@ -0,0 +1,74 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import net.runelite.api.GameObject;
+import net.runelite.api.NPC;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that spawns and despawns are applied as one batch per tick or frame
+ * rather than one at a time.
+ */
+public class SceneChangeQueueTest
+{
+    private static final int SMALL_SHIPWRECK = 60464;
+    private static final int LARGE_SHIPWRECK = 60470;
+
+    private PluginFixture fixture;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException
+    {
+        fixture = new PluginFixture();
+    }
+
+    @Test
+    public void burstRebuildsGeometryOnce()
+    {
+        int buildCount = fixture.plugin.getRangeGeometry().getBuildCount();
+        int version = fixture.plugin.getSceneVersion();
+
+        fixture.spawnShipwreck(SMALL_SHIPWRECK, 44, 44);
+        fixture.spawnShipwreck(LARGE_SHIPWRECK, 52, 48);
+        fixture.spawnShipwreck(SMALL_SHIPWRECK, 58, 56);
+        assertEquals("Changes were applied before the tick", version, fixture.plugin.getSceneVersion());
+
+        fixture.tick();
+        assertEquals(version + 1, fixture.plugin.getSceneVersion());
+        assertEquals(3, fixture.plugin.getActiveShipwrecks().size());
+
+        fixture.render();
+        fixture.render();
+        assertEquals(buildCount + 1, fixture.plugin.getRangeGeometry().getBuildCount());
+    }
+
+    @Test
+    public void spawnAndDespawnInOneTickCancelOut()
+    {
+        int version = fixture.plugin.getSceneVersion();
+
+        GameObject shipwreck = fixture.spawnShipwreck(SMALL_SHIPWRECK, 44, 44);
+        fixture.despawn(shipwreck);
+        fixture.tick();
+
+        assertEquals(version, fixture.plugin.getSceneVersion());
+        assertTrue(fixture.plugin.getActiveShipwrecks().isEmpty());
+    }
+
+    @Test
+    public void npcChangesAreAppliedOnTick()
+    {
+        NPC npc = fixture.spawnNpc(15186, 50, 50);
+        assertTrue(fixture.plugin.getTrackedNpcs().isEmpty());
+
+        fixture.tick();
+        assertEquals(1, fixture.plugin.getTrackedNpcs().size());
+
+        fixture.despawnNpc(npc);
+        fixture.tick();
+        assertTrue(fixture.plugin.getTrackedNpcs().isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.NPC;
+import org.junit.Test;
+
+/**
+ * Records a session through the plugin and checks that replaying it rebuilds
+ * the same overlay.
+ */
+public class SessionReplayTest
+{
+    @Test
+    public void replayReproducesRecordedSession() throws IOException, ReflectiveOperationException
+    {
+        File log = File.createTempFile("session", ".swsl");
+        log.deleteOnExit();
+
+        PluginFixture recorded = new PluginFixture();
+        recorded.plugin.getSessionRecorder().start(log);
+
+        // A wreck field, then a reload further along the route
+        GameObject depleting = recorded.spawnShipwreck(60464, 50, 48);
+        recorded.spawnShipwreck(60470, 56, 52);
+        recorded.tick();
+        recorded.render();
+        recorded.setGameState(GameState.LOADING);
+        recorded.setScene(PluginFixture.BASE_X + 16, PluginFixture.BASE_Y, 0);
+        recorded.setGameState(GameState.LOGGED_IN);
+        depleting = recorded.spawnShipwreck(60464, 34, 48);
+        recorded.spawnShipwreck(60470, 40, 52);
+        NPC npc = recorded.spawnNpc(15187, 44, 46);
+        recorded.tick();
+        recorded.render();
+        recorded.setCamera(40 * 128, 30 * 128, -1600, 300, 128);
+        recorded.render();
+        recorded.render();
+
+        // A wreck depletes and the NPC moves
+        recorded.despawn(depleting);
+        recorded.spawnShipwreck(60465, 34, 48);
+        recorded.moveNpc(npc, PluginFixture.BASE_X + 16 + 45, PluginFixture.BASE_Y + 46, 0);
+        recorded.tick();
+        recorded.render();
+        recorded.plugin.getSessionRecorder().stop();
+
+        PluginFixture replayed = new PluginFixture();
+        SessionReplayer replayer = new SessionReplayer(replayed);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(log)))
+        {
+            replayer.replay(in);
+        }
+
+        assertEquals(5, replayer.getFrames());
+        assertEquals(3, replayer.getTicks());
+        GoldenImages.assertSame("session-replay", recorded.render(), replayed.render(), 0);
+    }
+
+    @Test
+    public void npcWithoutLocationIsSkipped() throws IOException, ReflectiveOperationException
+    {
+        File log = File.createTempFile("session", ".swsl");
+        log.deleteOnExit();
+
+        SessionRecorder recorder = new SessionRecorder();
+        recorder.start(log);
+        NPC npc = (NPC) Proxy.newProxyInstance(NPC.class.getClassLoader(), new Class<?>[]{NPC.class},
+                (proxy, method, args) -> method.getName().equals("getIndex") ? 1 : null);
+        recorder.npcSpawned(npc);
+        recorder.gameTick(List.of(npc));
+        assertTrue(recorder.isRecording());
+        recorder.stop();
+
+        PluginFixture replayed = new PluginFixture();
+        SessionReplayer replayer = new SessionReplayer(replayed);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(log)))
+        {
+            replayer.replay(in);
+        }
+        assertEquals(1, replayer.getTicks());
+    }
+}
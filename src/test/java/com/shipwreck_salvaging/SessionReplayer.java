@@ -0,0 +1,249 @@
+package com.shipwrecksalvaging;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.api.GameObject;
+import net.runelite.api.GameState;
+import net.runelite.api.NPC;
+
+/**
+ * Drives the plugin and overlay headlessly from a {@link SessionLog}
+ * recording, timing every frame.
+ * <p>
+ * Run with {@code gradlew replay -Psession=<file>}, or from a profiler with
+ * the log as the only argument. Terrain is flat, as heights are not recorded.
+ */
+final class SessionReplayer
+{
+    private final PluginFixture fixture;
+    private final Map<Long, GameObject> objects = new HashMap<>();
+    private final Map<Integer, NPC> npcs = new HashMap<>();
+
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    private long[] frameNanos = new long[1024];
+    private int frames;
+    private int ticks;
+
+    SessionReplayer(PluginFixture fixture)
+    {
+        this.fixture = fixture;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        if (args.length != 1)
+        {
+            System.err.println("Usage: SessionReplayer <session.swsl>");
+            System.exit(1);
+        }
+
+        SessionReplayer replayer = new SessionReplayer(new PluginFixture());
+        try (InputStream in = new BufferedInputStream(new FileInputStream(args[0])))
+        {
+            replayer.replay(in);
+        }
+        replayer.printSummary();
+    }
+
+    void replay(InputStream stream) throws IOException
+    {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != SessionLog.MAGIC)
+        {
+            throw new IOException("Not a session log");
+        }
+        int version = in.readUnsignedShort();
+        if (version != SessionLog.VERSION)
+        {
+            throw new IOException("Unsupported session log version " + version);
+        }
+
+        try
+        {
+            while (true)
+            {
+                replayRecord(in, in.readUnsignedByte());
+            }
+        }
+        catch (EOFException e)
+        {
+            // End of the log; a recording cut short ends mid-record
+        }
+        finally
+        {
+            if (graphics != null)
+            {
+                graphics.dispose();
+            }
+        }
+    }
+
+    private void replayRecord(DataInputStream in, int type) throws IOException
+    {
+        switch (type)
+        {
+            case SessionLog.OBJECT_SPAWN:
+            {
+                int id = in.readInt();
+                int x = in.readUnsignedShort();
+                int y = in.readUnsignedShort();
+                int plane = in.readUnsignedByte();
+                GameObject gameObject = fixture.createWorldObject(id, x, y, plane);
+                objects.put(objectKey(id, x, y, plane), gameObject);
+                fixture.spawn(gameObject);
+                break;
+            }
+            case SessionLog.OBJECT_DESPAWN:
+            {
+                GameObject gameObject = objects.remove(objectKey(in.readInt(), in.readUnsignedShort(),
+                        in.readUnsignedShort(), in.readUnsignedByte()));
+                if (gameObject != null)
+                {
+                    fixture.despawn(gameObject);
+                }
+                break;
+            }
+            case SessionLog.NPC_SPAWN:
+            {
+                int id = in.readInt();
+                int index = in.readUnsignedShort();
+                NPC npc = fixture.spawnWorldNpc(id, index, in.readUnsignedShort(), in.readUnsignedShort(),
+                        in.readUnsignedByte());
+                npcs.put(index, npc);
+                break;
+            }
+            case SessionLog.NPC_MOVE:
+            {
+                NPC npc = npcs.get(in.readUnsignedShort());
+                int x = in.readUnsignedShort();
+                int y = in.readUnsignedShort();
+                int plane = in.readUnsignedByte();
+                if (npc != null)
+                {
+                    fixture.moveNpc(npc, x, y, plane);
+                }
+                break;
+            }
+            case SessionLog.NPC_DESPAWN:
+            {
+                NPC npc = npcs.remove(in.readUnsignedShort());
+                if (npc != null)
+                {
+                    fixture.despawnNpc(npc);
+                }
+                break;
+            }
+            case SessionLog.GAME_STATE:
+            {
+                GameState gameState = GameState.valueOf(in.readUTF());
+                fixture.setScene(in.readUnsignedShort(), in.readUnsignedShort(), in.readUnsignedByte());
+                fixture.setGameState(gameState);
+                break;
+            }
+            case SessionLog.GAME_TICK:
+                fixture.tick();
+                ticks++;
+                break;
+            case SessionLog.FRAME:
+            {
+                int cameraX = in.readInt();
+                int cameraY = in.readInt();
+                int cameraZ = in.readInt();
+                int pitch = in.readShort();
+                int yaw = in.readShort();
+                fixture.setCamera(cameraX, cameraY, cameraZ, pitch, yaw);
+                fixture.setScale(in.readShort());
+                fixture.setViewport(in.readShort(), in.readShort(), in.readShort(), in.readShort());
+                fixture.setPlane(in.readUnsignedByte());
+                renderFrame();
+                break;
+            }
+            case SessionLog.FRAME_UNCHANGED:
+                renderFrame();
+                break;
+            default:
+                throw new IOException("Unknown record type " + type);
+        }
+    }
+
+    private void renderFrame()
+    {
+        int width = fixture.client.getViewportXOffset() + fixture.client.getViewportWidth();
+        int height = fixture.client.getViewportYOffset() + fixture.client.getViewportHeight();
+        if (image == null || image.getWidth() != width || image.getHeight() != height)
+        {
+            if (graphics != null)
+            {
+                graphics.dispose();
+            }
+            image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+            graphics = image.createGraphics();
+        }
+
+        long start = System.nanoTime();
+        fixture.beforeRender();
+        fixture.overlay.render(graphics);
+        long elapsed = System.nanoTime() - start;
+
+        if (frames == frameNanos.length)
+        {
+            frameNanos = Arrays.copyOf(frameNanos, frames * 2);
+        }
+        frameNanos[frames++] = elapsed;
+    }
+
+    private static long objectKey(int id, int x, int y, int plane)
+    {
+        return (long) id << 32 | (long) plane << 30 | (long) y << 15 | x;
+    }
+
+    int getFrames()
+    {
+        return frames;
+    }
+
+    int getTicks()
+    {
+        return ticks;
+    }
+
+    BufferedImage getImage()
+    {
+        return image;
+    }
+
+    void printSummary()
+    {
+        if (frames == 0)
+        {
+            System.out.println("No frames recorded");
+            return;
+        }
+
+        long[] sorted = Arrays.copyOf(frameNanos, frames);
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long nanos : sorted)
+        {
+            total += nanos;
+        }
+
+        System.out.printf("%d frames, %d ticks%n", frames, ticks);
+        System.out.printf("mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                total / 1000.0 / frames,
+                sorted[frames / 2] / 1000.0,
+                sorted[Math.min(frames - 1, frames * 99 / 100)] / 1000.0,
+                sorted[frames - 1] / 1000.0);
+    }
+}
@@ -0,0 +1,286 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WreckIndexTest
+{
+    private File file;
+    private WreckIndex index;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        file = File.createTempFile("wrecks", ".dat");
+        index = new WreckIndex(file);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException, ExecutionException
+    {
+        close();
+        file.delete();
+    }
+
+    /**
+     * Opens the index with the client thread standing in for itself and waits for the records.
+     */
+    private void open() throws InterruptedException, ExecutionException
+    {
+        index.open(Runnable::run, () -> { });
+        index.awaitWriter();
+    }
+
+    private void close() throws InterruptedException, ExecutionException
+    {
+        index.close();
+        index.awaitWriter();
+    }
+
+    @Test
+    public void recordsSurviveReopening() throws InterruptedException, ExecutionException
+    {
+        open();
+        WorldPoint small = new WorldPoint(3010, 3200, 0);
+        WorldPoint large = new WorldPoint(3075, 3210, 0);
+        index.record(60464, small, 1000);
+        index.record(60471, large, 2000);
+        close();
+
+        index = new WreckIndex(file);
+        open();
+        assertEquals(2, index.getCount());
+
+        int slot = index.find(small);
+        assertEquals(small, index.getLocation(slot));
+        assertEquals(ShipwreckType.SMALL, index.getType(slot));
+        assertFalse(index.isDepleted(slot));
+        assertEquals(1000, index.getLastSeen(slot));
+        assertEquals(0, index.getLastDepleted(slot));
+
+        slot = index.find(large);
+        assertEquals(ShipwreckType.LARGE, index.getType(slot));
+        assertTrue(index.isDepleted(slot));
+        assertEquals(2000, index.getLastDepleted(slot));
+        assertEquals(-1, index.find(new WorldPoint(3010, 3200, 1)));
+    }
+
+    @Test
+    public void depletedTimeOnlyMovesWhenWreckDepletes() throws InterruptedException, ExecutionException
+    {
+        open();
+        WorldPoint location = new WorldPoint(3010, 3200, 0);
+        int slot = index.record(60464, location, 1000);
+        assertEquals(slot, index.record(60465, location, 2000));
+        assertEquals(slot, index.record(60465, location, 3000));
+        assertEquals(2000, index.getLastDepleted(slot));
+        assertEquals(3000, index.getLastSeen(slot));
+
+        index.record(60464, location, 4000);
+        index.record(60465, location, 5000);
+        assertEquals(5000, index.getLastDepleted(slot));
+        assertEquals(1, index.getCount());
+    }
+
+    @Test
+    public void thousandsOfWrecksGrowTheFile() throws InterruptedException, ExecutionException
+    {
+        open();
+        Random random = new Random(24);
+        Set<WorldPoint> locations = new HashSet<>();
+        while (locations.size() < 5000)
+        {
+            WorldPoint location = new WorldPoint(1000 + random.nextInt(3000), 2000 + random.nextInt(8000), random.nextInt(4));
+            if (locations.add(location))
+            {
+                index.record(60464 + random.nextInt(16), location, locations.size());
+            }
+            if (locations.size() % 700 == 0)
+            {
+                index.flush();
+            }
+        }
+        close();
+        assertEquals(WreckIndex.HEADER_SIZE + 8192L * WreckIndex.RECORD_SIZE, file.length());
+
+        index = new WreckIndex(file);
+        open();
+        assertEquals(locations.size(), index.getCount());
+        for (WorldPoint location : locations)
+        {
+            int slot = index.find(location);
+            assertEquals(location, index.getLocation(slot));
+
+            boolean inRegion = false;
+            for (int other = index.firstInRegion(WreckIndex.regionOf(location)); other >= 0; other = index.nextInRegion(other))
+            {
+                inRegion |= other == slot;
+            }
+            assertTrue(inRegion);
+        }
+    }
+
+    @Test
+    public void unknownFileStartsEmpty() throws IOException, InterruptedException, ExecutionException
+    {
+        Files.write(file.toPath(), "not a shipwreck index".getBytes());
+        open();
+        assertTrue(index.isOpen());
+        assertEquals(0, index.getCount());
+
+        index.record(60464, new WorldPoint(3010, 3200, 0), 1000);
+        close();
+        index = new WreckIndex(file);
+        open();
+        assertEquals(1, index.getCount());
+    }
+
+    @Test
+    public void emptyIndexReopens() throws InterruptedException, ExecutionException
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            index = new WreckIndex(file);
+            open();
+            assertTrue(index.isOpen());
+            assertEquals(0, index.getCount());
+            close();
+        }
+        assertEquals(WreckIndex.HEADER_SIZE + 256L * WreckIndex.RECORD_SIZE, file.length());
+    }
+
+    @Test
+    public void negativeCountStartsEmpty() throws IOException, InterruptedException, ExecutionException
+    {
+        open();
+        index.record(60464, new WorldPoint(3010, 3200, 0), 1000);
+        close();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            // The record count follows the magic, version and record size
+            raf.seek(8);
+            raf.writeInt(-5);
+        }
+
+        index = new WreckIndex(file);
+        open();
+        assertTrue(index.isOpen());
+        assertEquals(0, index.getCount());
+    }
+
+    @Test
+    public void corruptRecordsAreDropped() throws IOException, InterruptedException, ExecutionException
+    {
+        open();
+        WorldPoint first = new WorldPoint(3010, 3200, 0);
+        WorldPoint second = new WorldPoint(3020, 3200, 0);
+        WorldPoint third = new WorldPoint(3030, 3200, 0);
+        index.record(60464, first, 1000);
+        index.record(60466, second, 1000);
+        index.record(60468, third, 1000);
+        close();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            // Type byte of the first record, then the state byte of the second
+            raf.seek(WreckIndex.HEADER_SIZE + 4);
+            raf.writeByte(99);
+            raf.seek(WreckIndex.HEADER_SIZE + WreckIndex.RECORD_SIZE + 5);
+            raf.writeByte(7);
+        }
+
+        index = new WreckIndex(file);
+        open();
+        assertEquals(1, index.getCount());
+        assertEquals(-1, index.find(first));
+        assertEquals(-1, index.find(second));
+        assertEquals(ShipwreckType.BARRACUDA, index.getType(index.find(third)));
+        index.record(60464, first, 2000);
+        close();
+
+        // The remaining record moved up to the first slot, so the new one did not overwrite it
+        index = new WreckIndex(file);
+        open();
+        assertEquals(2, index.getCount());
+        assertEquals(third, index.getLocation(index.find(third)));
+        assertEquals(2000, index.getLastSeen(index.find(first)));
+    }
+
+    @Test
+    public void openHandsRecordsToTheClientThread() throws InterruptedException, ExecutionException
+    {
+        open();
+        index.record(60464, new WorldPoint(3010, 3200, 0), 1000);
+        close();
+
+        Queue<Runnable> clientThread = new ArrayDeque<>();
+        boolean[] opened = new boolean[1];
+        index = new WreckIndex(file);
+        index.open(clientThread::add, () -> opened[0] = true);
+        index.awaitWriter();
+        assertFalse(index.isOpen());
+        assertEquals(-1, index.record(60466, new WorldPoint(3020, 3200, 0), 2000));
+
+        clientThread.remove().run();
+        assertTrue(opened[0]);
+        assertTrue(index.isOpen());
+        assertEquals(1, index.getCount());
+    }
+
+    @Test
+    public void closeWhileLoadingDropsTheRecords() throws InterruptedException, ExecutionException
+    {
+        Queue<Runnable> clientThread = new ArrayDeque<>();
+        boolean[] opened = new boolean[1];
+        index.open(clientThread::add, () -> opened[0] = true);
+        index.close();
+        index.awaitWriter();
+        clientThread.remove().run();
+        assertFalse(opened[0]);
+        assertFalse(index.isOpen());
+
+        // The file was released in order, so opening again maps it afresh
+        open();
+        assertTrue(index.isOpen());
+        index.record(60464, new WorldPoint(3010, 3200, 0), 1000);
+        close();
+        index = new WreckIndex(file);
+        open();
+        assertEquals(1, index.getCount());
+    }
+
+    @Test
+    public void pluginKeepsWrecksAcrossSceneLoads()
+            throws ReflectiveOperationException, InterruptedException, ExecutionException
+    {
+        PluginFixture fixture = new PluginFixture();
+        open();
+        fixture.useWreckIndex(index);
+
+        fixture.spawnShipwreck(60464, 40, 40);
+        fixture.spawnShipwreck(60467, 60, 40);
+        fixture.tick();
+        fixture.setGameState(net.runelite.api.GameState.LOADING);
+        fixture.setGameState(net.runelite.api.GameState.LOGGED_IN);
+
+        assertTrue(fixture.plugin.getActiveShipwrecks().isEmpty());
+        assertEquals(2, index.getCount());
+        assertEquals(ShipwreckType.FISHERMAN, index.getType(index.find(new WorldPoint(
+                PluginFixture.BASE_X + 60, PluginFixture.BASE_Y + 40, 0))));
+    }
+}
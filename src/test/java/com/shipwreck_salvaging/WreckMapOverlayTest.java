@@ -0,0 +1,157 @@
+package com.shipwrecksalvaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import net.runelite.api.coords.WorldPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WreckMapOverlayTest
+{
+    // A 100 by 75 tile view with its bottom-left tile at 3150,3163
+    private static final Rectangle MAP_VIEW = new Rectangle(0, 0, 400, 300);
+    private static final int MAP_X = 3200;
+    private static final int MAP_Y = 3200;
+    private static final float ZOOM = 4;
+
+    private File file;
+    private WreckIndex index;
+    private PluginFixture fixture;
+
+    @Before
+    public void setUp() throws IOException, ReflectiveOperationException, InterruptedException, ExecutionException
+    {
+        file = File.createTempFile("wrecks", ".dat");
+        index = new WreckIndex(file);
+        index.open(Runnable::run, () -> { });
+        index.awaitWriter();
+        fixture = new PluginFixture();
+        fixture.useWreckIndex(index);
+        fixture.showWorldMap(MAP_X, MAP_Y, ZOOM, MAP_VIEW);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException, ExecutionException
+    {
+        index.close();
+        index.awaitWriter();
+        file.delete();
+    }
+
+    @Test
+    public void knownWreckIsDrawnOnItsMapTile()
+    {
+        index.record(60464, new WorldPoint(3170, 3180, 0), 1000);
+        index.record(60465, new WorldPoint(3190, 3180, 0), 1000);
+
+        BufferedImage image = render();
+        assertEquals(2, fixture.worldMapOverlay.getDrawnCount());
+        // The centre of the wreck is the corner its four tiles share
+        assertEquals(new Color(0, 255, 255).getRGB(), image.getRGB(84, 228));
+        // Depleted wrecks are a ring with nothing in its middle
+        assertEquals(0, image.getRGB(84 + 20 * 4, 228));
+    }
+
+    @Test
+    public void onlyWrecksInViewAreDrawn()
+    {
+        Random random = new Random(25);
+        for (int i = 0; i < 5000; i++)
+        {
+            index.record(60464 + random.nextInt(16), new WorldPoint(1000 + random.nextInt(1500), 2000 + random.nextInt(6000), 0), i);
+        }
+        index.record(60470, new WorldPoint(3160, 3170, 0), 1000);
+        index.record(60473, new WorldPoint(3240, 3230, 0), 1000);
+        index.record(60478, new WorldPoint(3200, 3200, 0), 1000);
+
+        NullGraphics2D graphics = new NullGraphics2D();
+        fixture.worldMapOverlay.render(graphics);
+        assertEquals(3, fixture.worldMapOverlay.getDrawnCount());
+        assertEquals(3, graphics.images);
+    }
+
+    @Test
+    public void disabledTypesAreHidden() throws ReflectiveOperationException
+    {
+        index.record(60464, new WorldPoint(3170, 3180, 0), 1000);
+        index.record(60466, new WorldPoint(3190, 3180, 0), 1000);
+        fixture.setConfig("showSmallShipwreck", false);
+        fixture.applyConfig();
+
+        render();
+        assertEquals(1, fixture.worldMapOverlay.getDrawnCount());
+
+        fixture.setConfig("showOnWorldMap", false);
+        fixture.applyConfig();
+        render();
+        assertEquals(0, fixture.worldMapOverlay.getDrawnCount());
+    }
+
+    @Test
+    public void sceneWrecksAreShownWithoutIndex() throws ReflectiveOperationException
+    {
+        fixture.useWreckIndex(new WreckIndex(file));
+        fixture.spawnShipwreck(60464, 40, 40);
+        fixture.spawnShipwreck(60465, 60, 40);
+        fixture.tick();
+        fixture.showWorldMap(PluginFixture.BASE_X + 50, PluginFixture.BASE_Y + 40, ZOOM, MAP_VIEW);
+
+        render();
+        assertEquals(2, fixture.worldMapOverlay.getDrawnCount());
+    }
+
+    @Test
+    public void minimapShowsEnabledSceneWrecks() throws ReflectiveOperationException
+    {
+        fixture.spawnShipwreck(60464, 40, 40);
+        fixture.spawnShipwreck(60469, 60, 40);
+        fixture.tick();
+
+        NullGraphics2D graphics = new NullGraphics2D();
+        fixture.minimapOverlay.render(graphics);
+        assertEquals(2, fixture.minimapOverlay.getDrawnCount());
+
+        fixture.setConfig("showBarracudaShipwreck", false);
+        fixture.applyConfig();
+        fixture.minimapOverlay.render(graphics);
+        assertEquals(1, fixture.minimapOverlay.getDrawnCount());
+        assertEquals(3, graphics.images);
+    }
+
+    @Test
+    public void spritesAreDrawnOnce()
+    {
+        WreckSprites sprites = new WreckSprites(9);
+        for (ShipwreckType type : ShipwreckType.values())
+        {
+            assertSame(sprites.get(type, false), sprites.get(type, false));
+            assertSame(sprites.get(type, true), sprites.get(type, true));
+            assertEquals(9, sprites.get(type, true).getWidth());
+        }
+    }
+
+    private BufferedImage render()
+    {
+        BufferedImage image = new BufferedImage(MAP_VIEW.width, MAP_VIEW.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        try
+        {
+            fixture.worldMapOverlay.render(graphics);
+        }
+        finally
+        {
+            graphics.dispose();
+        }
+        return image;
+    }
+}